@@ -0,0 +1,99 @@
+package com.example.restaurantmanagement;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quick before/after timing of the DatabaseHelper calls, run against a throwaway database file:
+ * first with a fresh DriverManager connection per call (the old behaviour), then with the pool.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.DataAccessBenchmark [iterations]
+ */
+public class DataAccessBenchmark {
+
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        Path dbFile = Files.createTempFile("restaurant-bench", ".db");
+        String url = "jdbc:sqlite:" + dbFile.toAbsolutePath();
+        System.setProperty("db.url", url);
+        // validateUser is here for its queries; at the production hashing cost it would time PBKDF2 instead.
+        PasswordHasher.get().setIterations(1_000);
+
+        DatabaseHelper.initializeDatabase();
+        seed();
+
+        System.out.printf("%-28s %14s %14s%n", "operation (us/call)", "per-call conn", "pooled");
+        long[][] results = new long[2][];
+        for (int mode = 0; mode < 2; mode++) {
+            boolean pooled = mode == 1;
+            DatabaseHelper.usePool(new ConnectionPool(url, pooled, 4, 1, 60_000, 5_000, 10_000));
+            results[mode] = runAll(iterations);
+        }
+        String[] names = operationNames();
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-28s %14.1f %14.1f%n", names[i],
+                    results[0][i] / 1000.0 / iterations, results[1][i] / 1000.0 / iterations);
+        }
+
+        DatabaseHelper.shutdown();
+        PasswordHasher.get().shutdown();
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    private static void seed() {
+        DatabaseHelper.registerUser("Bench User", "bench@example.com", "Bench#123", "0100000000", "Bench Street");
+        for (int i = 0; i < 50; i++) {
+            DatabaseHelper.addMenuItem("Item " + i, "Category " + (i % 5), 5 + i, "Available", "Benchmark item", null);
+        }
+        for (int i = 0; i < 200; i++) {
+            DatabaseHelper.placeOrder("tx-" + (i / 3), "bench@example.com", "Item " + (i % 50), 1 + i % 3, 10.0);
+        }
+        // Menu item ids start at 1 in the fresh database, so "Item i" has id i + 1.
+        for (int i = 0; i < 50; i++) {
+            DatabaseHelper.addRating("bench@example.com", i + 1, 1 + i % 5);
+        }
+    }
+
+    private static String[] operationNames() {
+        return new String[]{"getAllMenuItems", "getAverageRating", "getAllAverageRatings", "getUserRating", "hasUserOrderedItem",
+                "validateUser", "getUserByEmail", "getOrderHistoryPage", "placeOrder", "placeOrderBatch (12 lines)"};
+    }
+
+    private static long[] runAll(int iterations) throws Exception {
+        List<CartItem> cart = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            cart.add(new CartItem(new MenuItem(i, "Item " + i, "Category", 5.0, "Available", null, null), 1));
+        }
+        Call[] calls = {
+                DatabaseHelper::getAllMenuItems,
+                () -> DatabaseHelper.getAverageRating(8),
+                DatabaseHelper::getAllAverageRatings,
+                () -> DatabaseHelper.getUserRating("bench@example.com", 8),
+                () -> DatabaseHelper.hasUserOrderedItem("bench@example.com", 8),
+                () -> DatabaseHelper.validateUser("bench@example.com", "Bench#123"),
+                () -> DatabaseHelper.getUserByEmail("bench@example.com"),
+                () -> DatabaseHelper.getOrderHistoryPage("bench@example.com", null, true, null, 0, 30),
+                // Written under another account so the history being read above does not grow between runs.
+                () -> DatabaseHelper.placeOrder("tx-bench", "writer@example.com", "Item 1", 1, 5.0),
+                () -> DatabaseHelper.placeOrderBatch("tx-batch", "writer@example.com", cart)
+        };
+        long[] elapsed = new long[calls.length];
+        for (int c = 0; c < calls.length; c++) {
+            // Warm up the JIT and the page cache before measuring.
+            for (int i = 0; i < Math.min(200, iterations); i++) calls[c].run();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) calls[c].run();
+            elapsed[c] = System.nanoTime() - start;
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.restaurantmanagement;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks a password-hashing cost for this machine. For each PBKDF2 iteration count it registers a
+ * set of staff accounts in a throwaway database, then simulates a shift change: every account
+ * logs in at once, through the same database workers the login screen uses. The latency of a
+ * login is measured from the moment it is submitted, so it includes waiting for a hasher.
+ *
+ * The recommended cost is the highest one whose p99 stays under the target; pass it to the app
+ * as -Dauth.pbkdf2.iterations. Run on the hardware the restaurant actually uses.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.LoginBenchmark [burst] [targetMs] [iterations,...]
+ */
+public class LoginBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int burst = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        long targetMs = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int[] costs = args.length > 2
+                ? Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10_000, 50_000, 100_000, 210_000, 310_000, 600_000};
+
+        Path dbFile = Files.createTempFile("restaurant-login-bench", ".db");
+        System.setProperty("db.url", "jdbc:sqlite:" + dbFile.toAbsolutePath());
+        DatabaseHelper.initializeDatabase();
+
+        PasswordHasher hasher = PasswordHasher.get();
+        System.out.printf("%d concurrent logins, target p99 %d ms, %d processor(s)%n", burst, targetMs, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "iterations", "hash ms", "p50 ms", "p95 ms", "p99 ms", "failed");
+
+        int recommended = -1;
+        for (int cost : costs) {
+            hasher.setIterations(cost);
+            for (int i = 0; i < burst; i++) {
+                DatabaseHelper.registerUser("Staff " + i, email(cost, i), "password-" + i);
+            }
+            // Warm up the JIT and time one hash on its own.
+            hasher.hash("warm-up");
+            long single = System.nanoTime();
+            hasher.hash("warm-up");
+            single = System.nanoTime() - single;
+
+            long[] latencies = new long[burst];
+            AtomicInteger failed = new AtomicInteger();
+            List<CompletableFuture<Void>> logins = new ArrayList<>();
+            for (int i = 0; i < burst; i++) {
+                final int user = i;
+                long submitted = System.nanoTime();
+                logins.add(AsyncDatabase.supply(() -> DatabaseHelper.validateUser(email(cost, user), "password-" + user))
+                        .handle((ok, error) -> {
+                            latencies[user] = System.nanoTime() - submitted;
+                            if (error != null || !ok) failed.incrementAndGet();
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(logins.toArray(new CompletableFuture<?>[0])).join();
+
+            Arrays.sort(latencies);
+            long p99 = latencies[Math.min(burst - 1, (int) (burst * 0.99))];
+            System.out.printf("%-12d %10.1f %10.1f %10.1f %10.1f %10d%n", cost, single / 1e6,
+                    latencies[burst / 2] / 1e6,
+                    latencies[Math.min(burst - 1, (int) (burst * 0.95))] / 1e6,
+                    p99 / 1e6, failed.get());
+            if (failed.get() == 0 && p99 / 1_000_000 < targetMs) recommended = Math.max(recommended, cost);
+        }
+
+        if (recommended > 0) {
+            System.out.println("Recommended: -Dauth.pbkdf2.iterations=" + recommended);
+        } else {
+            System.out.println("No cost kept p99 under " + targetMs + " ms; add hasher workers (-Dauth.workers) or raise the target.");
+        }
+
+        AsyncDatabase.shutdown();
+        hasher.shutdown();
+        DatabaseHelper.shutdown();
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    private static String email(int cost, int user) {
+        return "staff" + user + "-" + cost + "@example.com";
+    }
+}
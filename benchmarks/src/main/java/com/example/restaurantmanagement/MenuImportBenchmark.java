@@ -0,0 +1,118 @@
+package com.example.restaurantmanagement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Times bulk menu import and export against a throwaway database. A synthetic catalog is written
+ * as CSV and as JSON (with a few deliberately bad rows), imported into an empty menu, imported
+ * again (every row is then an update), exported, and the export imported back. Heap in use is
+ * sampled while each step runs, to show that it does not grow with the file.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.MenuImportBenchmark [items]
+ */
+public class MenuImportBenchmark {
+
+    private static final String[] CATEGORIES = {"Starters", "Soups", "Salads", "Mains", "Burgers", "Pizza", "Pasta", "Sides", "Desserts", "Drinks"};
+    private static final int BAD_ROW_EVERY = 10_000;
+
+    private interface Step {
+        String run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        Path dir = Files.createTempDirectory("restaurant-import-bench");
+        Path dbFile = dir.resolve("bench.db");
+        System.setProperty("db.url", "jdbc:sqlite:" + dbFile.toAbsolutePath());
+        DatabaseHelper.initializeDatabase();
+
+        Path csv = dir.resolve("menu.csv");
+        Path json = dir.resolve("menu.json");
+        writeCsv(csv, items);
+        writeJson(json, items);
+        System.out.printf("%,d items: CSV %,d KB, JSON %,d KB%n", items, Files.size(csv) / 1024, Files.size(json) / 1024);
+        System.out.printf("%-28s %10s %12s  %s%n", "step", "ms", "max heap MB", "result");
+
+        Path exported = dir.resolve("export.csv");
+        time("import CSV (new items)", () -> DatabaseHelper.importMenuItems(csv, null).summary());
+        time("import JSON (same names)", () -> DatabaseHelper.importMenuItems(json, null).summary());
+        time("export CSV", () -> DatabaseHelper.exportMenuItems(exported, null) + " items");
+        time("import export (by id)", () -> DatabaseHelper.importMenuItems(exported, null).summary());
+        System.out.printf("catalog now holds %,d items%n", MenuCatalog.get().getAll().size());
+
+        DatabaseHelper.shutdown();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static void time(String name, Step step) throws Exception {
+        System.gc();
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        long start = System.nanoTime();
+        String result = step.run();
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        System.out.printf("%-28s %10.0f %12.1f  %s%n", name, elapsed / 1e6, sampler.max / 1048576.0, result);
+    }
+
+    // Records the most heap in use while a step runs.
+    private static final class HeapSampler extends Thread {
+        volatile long max;
+
+        HeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (!isInterrupted()) {
+                max = Math.max(max, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void writeCsv(Path file, int items) throws IOException {
+        Random random = new Random(7);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("name,category,price,status,description\n");
+            for (int i = 0; i < items; i++) {
+                if (i > 0 && i % BAD_ROW_EVERY == 0) {
+                    out.write("Bad Item " + i + ",Mains,not-a-price,Available,\n");
+                    continue;
+                }
+                out.write("Dish " + i + "," + CATEGORIES[i % CATEGORIES.length] + "," + (3 + random.nextInt(3000) / 100.0) +
+                          ",Available,\"Served with \"\"house\"\" sauce, herbs\"\n");
+            }
+        }
+    }
+
+    private static void writeJson(Path file, int items) throws IOException {
+        Random random = new Random(11);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            for (int i = 0; i < items; i++) {
+                if (i > 0) out.write(",\n");
+                String status = i > 0 && i % BAD_ROW_EVERY == 0 ? "Sold out" : i % 7 == 0 ? "Out of Stock" : "Available";
+                out.write("{\"name\": \"Dish " + i + "\", \"category\": \"" + CATEGORIES[i % CATEGORIES.length] + "\", \"price\": " +
+                          (3 + random.nextInt(3000) / 100.0) + ", \"status\": \"" + status + "\"}");
+            }
+            out.write("\n]\n");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.restaurantmanagement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times menu search the way type-ahead uses it: every query is typed one character at a time and
+ * each prefix is searched, as the search box does on every keystroke. The catalog is synthetic
+ * (names, categories and descriptions built from a food vocabulary), so no database is needed.
+ * Also times single-item updates, which is what an admin edit costs the index.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.MenuSearchBenchmark [items] [rounds]
+ */
+public class MenuSearchBenchmark {
+
+    private static final String[] STYLES = {"Classic", "Spicy", "Smoked", "Grilled", "Crispy", "Roasted", "Creamy", "Garlic",
+            "Tandoori", "Teriyaki", "Crème", "Sicilian", "Cajun", "Honey", "Lemon", "Wild", "Truffle", "Korean", "Jalapeño", "Mediterranean"};
+    private static final String[] INGREDIENTS = {"Chicken", "Beef", "Salmon", "Tofu", "Mushroom", "Halloumi", "Prawn", "Lamb", "Pork", "Falafel",
+            "Aubergine", "Chorizo", "Paneer", "Duck", "Tuna", "Spinach", "Pumpkin", "Chickpea", "Brûlée", "Mozzarella"};
+    private static final String[] DISHES = {"Burger", "Pizza", "Pasta", "Salad", "Soup", "Curry", "Wrap", "Bowl", "Risotto", "Tacos",
+            "Skewers", "Noodles", "Pie", "Sandwich", "Stew", "Ramen", "Burrito", "Flatbread", "Tart", "Gnocchi"};
+    private static final String[] CATEGORIES = {"Starters", "Soups", "Salads", "Mains", "Burgers", "Pizza", "Pasta", "Sides", "Desserts", "Drinks"};
+    private static final String[] DESCRIPTION_WORDS = {"served", "with", "fresh", "herbs", "house", "sauce", "seasonal", "greens", "toasted",
+            "seeds", "slow", "cooked", "charred", "onions", "pickled", "chilli", "yoghurt", "dressing", "sourdough", "basil", "parmesan",
+            "coriander", "lime", "sesame", "glaze", "potatoes", "rice", "gluten", "free", "vegan", "available", "local", "organic"};
+
+    private static final String[] QUERIES = {"chicken burger", "spicy", "creme brulee", "veg", "salmon bowl", "past", "ramen",
+            "grilled halloumi wrap", "truffle", "gluten free", "tandoori paneer", "pizza", "lemon tart", "jalapeno", "soup", "duck noodles"};
+
+    public static void main(String[] args) {
+        int itemCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Random random = new Random(42);
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            menu.add(randomItem(i + 1, random));
+        }
+
+        MenuSearchIndex index = new MenuSearchIndex();
+        long begin = System.nanoTime();
+        index.rebuild(menu);
+        System.out.printf("%d items indexed in %.1f ms%n", index.size(), (System.nanoTime() - begin) / 1e6);
+
+        // Warm up, then measure every keystroke of every query.
+        for (int i = 0; i < rounds / 4 + 1; i++) typeAll(index, null);
+        List<Long> keystrokes = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) typeAll(index, keystrokes);
+        report("keystroke search", keystrokes);
+
+        for (int i = 0; i < rounds * 10; i++) updateOne(index, itemCount, random, null);
+        List<Long> updates = new ArrayList<>();
+        for (int i = 0; i < rounds * 10; i++) updateOne(index, itemCount, random, updates);
+        report("update one item", updates);
+
+        for (String query : new String[]{"chi bur", "creme", "gluten free"}) {
+            List<MenuItem> top = index.search(query, null, 3);
+            System.out.printf("%-12s -> %s%n", query, top.stream().map(MenuItem::getName).toList());
+        }
+    }
+
+    private static void typeAll(MenuSearchIndex index, List<Long> timings) {
+        for (String query : QUERIES) {
+            for (int length = 1; length <= query.length(); length++) {
+                String prefix = query.substring(0, length);
+                long start = System.nanoTime();
+                index.search(prefix, item -> "Available".equals(item.getStatus()), 60);
+                if (timings != null) timings.add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void updateOne(MenuSearchIndex index, int itemCount, Random random, List<Long> timings) {
+        MenuItem changed = randomItem(1 + random.nextInt(itemCount), random);
+        long start = System.nanoTime();
+        index.put(changed);
+        if (timings != null) timings.add(System.nanoTime() - start);
+    }
+
+    private static MenuItem randomItem(int id, Random random) {
+        String name = pick(STYLES, random) + " " + pick(INGREDIENTS, random) + " " + pick(DISHES, random);
+        StringBuilder description = new StringBuilder();
+        int words = 6 + random.nextInt(10);
+        for (int w = 0; w < words; w++) {
+            description.append(w == 0 ? "" : " ").append(pick(DESCRIPTION_WORDS, random));
+        }
+        return new MenuItem(id, name, pick(CATEGORIES, random), 5 + random.nextInt(20),
+                random.nextInt(20) == 0 ? "Out of Stock" : "Available", description.toString(), null);
+    }
+
+    private static String pick(String[] words, Random random) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static void report(String name, List<Long> nanos) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%-18s n=%-7d p50 %.3f ms  p99 %.3f ms  max %.3f ms%n", name, sorted.length,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
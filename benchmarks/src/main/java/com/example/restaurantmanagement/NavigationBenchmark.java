@@ -0,0 +1,106 @@
+package com.example.restaurantmanagement;
+
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Times how long switching between the customer screens keeps the FX thread busy, with the view
+ * cache off (a fresh FXMLLoader per click, the old behaviour) and on. Each navigation is measured
+ * up to a finished CSS and layout pass; the data the screens load in the background is not included.
+ * Needs a display, like the application itself.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.NavigationBenchmark [rounds]
+ */
+public class NavigationBenchmark {
+
+    private static final String[] SCREENS = {"Menu", "Cart", "History", "Profile", "Item detail"};
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+
+        Path dbFile = Files.createTempFile("restaurant-nav-bench", ".db");
+        System.setProperty("db.url", "jdbc:sqlite:" + dbFile.toAbsolutePath());
+        DatabaseHelper.initializeDatabase();
+        DatabaseHelper.registerUser("Bench User", "bench@example.com", "Bench#123", "0100000000", "Bench Street");
+        for (int i = 0; i < 30; i++) {
+            DatabaseHelper.addMenuItem("Item " + i, "Category " + (i % 5), 5 + i, "Available", "Benchmark item", null);
+        }
+        UserSession session = UserSession.start("bench@example.com");
+        MenuItem detailItem = MenuCatalog.get().getAll().get(0);
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        double[][] results = new double[2][];
+        for (int mode = 0; mode < 2; mode++) {
+            boolean cached = mode == 1;
+            CountDownLatch done = new CountDownLatch(1);
+            Platform.runLater(() -> {
+                try {
+                    results[cached ? 1 : 0] = run(cached, rounds, session, detailItem);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            });
+            done.await();
+        }
+
+        System.out.printf("%-14s %16s %16s%n", "screen (ms)", "fresh FXML", "cached view");
+        for (int i = 0; i < SCREENS.length; i++) {
+            System.out.printf("%-14s %16.2f %16.2f%n", SCREENS[i], results[0][i], results[1][i]);
+        }
+
+        Platform.exit();
+        DatabaseHelper.shutdown();
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    /** Mean milliseconds per navigation to each screen, in the order of SCREENS. */
+    private static double[] run(boolean cached, int rounds, UserSession session, MenuItem detailItem) throws Exception {
+        ViewRegistry.get().setCaching(cached);
+        ViewRegistry.View<UserDashboard> view = ViewRegistry.get().view("UserDashboard.fxml");
+        UserDashboard dashboard = view.getController();
+        Stage stage = new Stage();
+        stage.setScene(new Scene(view.getRoot(), 800, 600));
+        stage.show();
+        dashboard.setSession(session);
+
+        Runnable[] navigations = {
+                dashboard::onViewMenuClick,
+                dashboard::onViewCartClick,
+                dashboard::onOrderHistoryClick,
+                dashboard::onProfileClick,
+                () -> dashboard.showItemDetail(detailItem)
+        };
+        long[] elapsed = new long[navigations.length];
+        Parent root = stage.getScene().getRoot();
+        for (int round = 0; round < rounds + 5; round++) {
+            for (int i = 0; i < navigations.length; i++) {
+                long start = System.nanoTime();
+                navigations[i].run();
+                root.applyCss();
+                root.layout();
+                // The first rounds warm up the JIT and fill the cache.
+                if (round >= 5) elapsed[i] += System.nanoTime() - start;
+            }
+        }
+        stage.close();
+
+        double[] mean = new double[navigations.length];
+        for (int i = 0; i < navigations.length; i++) {
+            mean[i] = elapsed[i] / 1e6 / rounds;
+        }
+        return mean;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.restaurantmanagement;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Times the accounting export of order lines against an existing database, in every format,
+ * for the whole history and for a shorter range. Heap in use is sampled while each export runs:
+ * it should stay flat whatever the number of lines. Fill a database with DataSeeder first, e.g.
+ * --orders=1000000.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.OrderExportBenchmark DB_FILE [fromDay toDay]
+ */
+public class OrderExportBenchmark {
+
+    private static final String[] FILES = {"orders.csv", "orders.csv.gz", "orders.ndjson", "orders.ndjson.gz"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: OrderExportBenchmark DB_FILE [fromDay toDay]");
+            return;
+        }
+        System.setProperty("db.url", "jdbc:sqlite:" + Path.of(args[0]).toAbsolutePath());
+        String fromDay = args.length > 2 ? args[1] : null;
+        String toDay = args.length > 2 ? args[2] : null;
+        DatabaseHelper.initializeDatabase();
+
+        Path dir = Files.createTempDirectory("restaurant-export-bench");
+        System.out.printf("%-18s %-24s %12s %10s %12s %10s %12s%n", "file", "range", "lines", "ms", "lines/s", "MB", "max heap MB");
+        String[][] ranges = fromDay != null ? new String[][]{{null, null}, {fromDay, toDay}} : new String[][]{{null, null}};
+        for (String[] range : ranges) {
+            for (String name : FILES) {
+                Path file = dir.resolve(name);
+                System.gc();
+                long[] maxHeap = new long[1];
+                Thread sampler = heapSampler(maxHeap);
+                long start = System.nanoTime();
+                long lines = DatabaseHelper.exportOrderLines(file, range[0], range[1], null);
+                long elapsed = System.nanoTime() - start;
+                sampler.interrupt();
+                sampler.join();
+                if (lines < 0) {
+                    System.out.println(name + " failed: " + DatabaseHelper.getLastError());
+                    continue;
+                }
+                System.out.printf("%-18s %-24s %,12d %10.0f %,12.0f %10.1f %12.1f%n", name,
+                        (range[0] == null ? "start" : range[0]) + " .. " + (range[1] == null ? "end" : range[1]),
+                        lines, elapsed / 1e6, lines / (elapsed / 1e9), Files.size(file) / 1048576.0, maxHeap[0] / 1048576.0);
+                Files.delete(file);
+            }
+        }
+
+        DatabaseHelper.shutdown();
+        Files.deleteIfExists(dir);
+    }
+
+    // Records the most heap in use until interrupted.
+    private static Thread heapSampler(long[] max) {
+        Thread sampler = new Thread(() -> {
+            Runtime runtime = Runtime.getRuntime();
+            while (!Thread.currentThread().isInterrupted()) {
+                max[0] = Math.max(max[0], runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+        return sampler;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.restaurantmanagement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cold-start timing: launches the application in a fresh JVM several times, each against its own
+ * throwaway database, and reports time to first frame and time to interactive (see
+ * {@link StartupMetrics}). Extra arguments after the run count are passed to the child JVMs, e.g.
+ * -XX:SharedArchiveFile=app.jsa -XX:+AutoCreateSharedArchive to compare with an AppCDS archive.
+ * Needs a display, like the application itself.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.StartupBenchmark [runs] [jvm options...]
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> jvmOptions = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+
+        long[] firstFrame = new long[runs];
+        long[] interactive = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long[] result = launchOnce(jvmOptions);
+            firstFrame[run] = result[0];
+            interactive[run] = result[1];
+            System.out.printf("run %2d: first frame %5d ms, interactive %5d ms%n", run + 1, result[0], result[1]);
+        }
+        System.out.printf("median: first frame %5d ms, interactive %5d ms%n", median(firstFrame), median(interactive));
+    }
+
+    private static long[] launchOnce(List<String> jvmOptions) throws IOException, InterruptedException {
+        Path dbFile = Files.createTempFile("restaurant-startup-bench", ".db");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.add("-Ddb.url=jdbc:sqlite:" + dbFile.toAbsolutePath());
+            command.add("-Dstartup.exitWhenReady=true");
+            String modulePath = System.getProperty("jdk.module.path");
+            if (modulePath != null) {
+                command.add("--module-path");
+                command.add(modulePath);
+                command.add("--module");
+                command.add("com.example.restaurantmanagement/com.example.restaurantmanagement.UserLogin");
+            } else {
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(Launcher.class.getName()); // UserLogin itself will not start with JavaFX on the class path
+            }
+
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            long[] result = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("STARTUP ")) {
+                        String[] parts = line.split(" ");
+                        result = new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+                    }
+                }
+            }
+            int exit = process.waitFor();
+            if (result == null) throw new IOException("The application exited with " + exit + " without reporting its startup time");
+            return result;
+        } finally {
+            Files.deleteIfExists(dbFile);
+            Files.deleteIfExists(Path.of(dbFile + "-wal"));
+            Files.deleteIfExists(Path.of(dbFile + "-shm"));
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.restaurantmanagement;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for concurrent writes, run against a throwaway database file. Several threads each
+ * place orders, rate items and change order statuses as fast as they can, in three setups:
+ * a fresh connection per write (the old behaviour), every write taking turns on the pooled writer
+ * connection, and the single-writer queue with group commit.
+ *
+ * Run with: java -cp benchmarks/target/benchmarks.jar com.example.restaurantmanagement.WriteThroughputBenchmark [threads] [writesPerThread]
+ */
+public class WriteThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int writesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        Path dbFile = Files.createTempFile("restaurant-write-bench", ".db");
+        String url = "jdbc:sqlite:" + dbFile.toAbsolutePath();
+        System.setProperty("db.url", url);
+
+        DatabaseHelper.initializeDatabase();
+        for (int i = 0; i < 20; i++) {
+            DatabaseHelper.addMenuItem("Item " + i, "Category " + (i % 4), 5 + i, "Available", "Benchmark item", null);
+        }
+
+        System.out.printf("%d threads x %d writes%n", threads, writesPerThread);
+        System.out.printf("%-22s %10s %10s %10s %10s %10s%n", "mode", "writes/s", "p50 ms", "p99 ms", "failed", "groups");
+
+        String[] modes = {"per-call connection", "pooled writer", "write queue"};
+        for (int mode = 0; mode < modes.length; mode++) {
+            DatabaseHelper.useWriteQueue(false);
+            DatabaseHelper.usePool(new ConnectionPool(url, mode > 0, 4, 1, 60_000, 5_000, 10_000));
+            DatabaseHelper.useWriteQueue(mode == 2);
+            run(modes[mode], mode, threads, writesPerThread);
+        }
+
+        DatabaseHelper.shutdown();
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    private static void run(String name, int mode, int threads, int writesPerThread) throws InterruptedException {
+        AtomicInteger failed = new AtomicInteger();
+        long[][] latencies = new long[threads][writesPerThread];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            Thread worker = new Thread(() -> {
+                String email = "writer" + thread + "@example.com";
+                List<CartItem> cart = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    cart.add(new CartItem(new MenuItem(i + 1, "Item " + i, "Category", 5.0, "Available", null, null), 1));
+                }
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                String lastTx = null;
+                for (int i = 0; i < writesPerThread; i++) {
+                    long begin = System.nanoTime();
+                    boolean ok;
+                    switch (i % 3) {
+                        case 0:
+                            lastTx = "bench-" + mode + "-" + thread + "-" + i;
+                            ok = DatabaseHelper.placeOrderBatch(lastTx, email, cart);
+                            break;
+                        case 1:
+                            ok = DatabaseHelper.addRating(email, 1 + i % 20, 1 + i % 5);
+                            break;
+                        default:
+                            ok = DatabaseHelper.updateOrderStatusByTransaction(lastTx, "Accepted");
+                            break;
+                    }
+                    latencies[thread][i] = System.nanoTime() - begin;
+                    if (!ok) failed.incrementAndGet();
+                }
+            }, "bench-writer-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        WriteQueue queue = DatabaseHelper.writeQueue();
+        long groupsBefore = queue != null ? queue.getCommittedGroups() : 0;
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        int total = threads * writesPerThread;
+        System.out.printf("%-22s %10.0f %10.2f %10.2f %10d %10s%n", name,
+                total / (elapsed / 1e9),
+                all[all.length / 2] / 1e6,
+                all[Math.min(all.length - 1, (int) (all.length * 0.99))] / 1e6,
+                failed.get(),
+                queue != null ? String.valueOf(queue.getCommittedGroups() - groupsBefore) : "-");
+    }
+}
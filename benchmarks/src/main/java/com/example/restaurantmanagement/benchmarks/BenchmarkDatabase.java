@@ -0,0 +1,97 @@
+package com.example.restaurantmanagement.benchmarks;
+
+import com.example.restaurantmanagement.DataSeeder;
+import com.example.restaurantmanagement.DatabaseHelper;
+import com.example.restaurantmanagement.PasswordHasher;
+import com.example.restaurantmanagement.SchemaMigrations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Throwaway databases for the benchmarks, seeded by {@link DataSeeder} to a given number of orders.
+ *
+ * Seeding a million orders takes a while, so each size is seeded once into a template file
+ * (named after the size, the schema version and the password hashing cost) under
+ * -Dbench.dataDir, default ${java.io.tmpdir}/restaurant-jmh. Every trial then works on its own
+ * copy of the template, so the writes one benchmark makes never show up in the next.
+ *
+ * DatabaseHelper reads db.url once, when the class is loaded, so a JVM can only ever use one
+ * database: the benchmarks must run forked (the JMH default).
+ */
+public final class BenchmarkDatabase {
+
+    /** The most active seeded customer. */
+    public static final String USER_EMAIL = DataSeeder.customerEmail(0);
+    public static final String USER_PASSWORD = DataSeeder.DEFAULT_PASSWORD;
+    public static final int MENU_ITEMS = 200;
+    /** PBKDF2 cost the benchmark forks hash with (-Dauth.pbkdf2.iterations), far below production. */
+    public static final int PASSWORD_ITERATIONS = 1_000;
+
+    // Fixed, so a template seeded on any day holds the same rows.
+    private static final LocalDate SEED_END = LocalDate.of(2026, 1, 1);
+
+    private static String openedUrl;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Points DatabaseHelper at a fresh copy of a database with the given number of orders and
+     * returns the copy, for {@link #close}.
+     */
+    public static synchronized Path open(int orders) throws IOException, SQLException {
+        if (openedUrl != null) {
+            throw new IllegalStateException("DatabaseHelper is already using " + openedUrl + "; run the benchmarks with forks (-f 1 or more)");
+        }
+        Path dir = Path.of(System.getProperty("bench.dataDir", Path.of(System.getProperty("java.io.tmpdir"), "restaurant-jmh").toString()));
+        Files.createDirectories(dir);
+        // The stored password hashes carry their cost, so templates seeded at another cost are not reused.
+        Path template = dir.resolve("orders-" + orders + "-v" + SchemaMigrations.latestVersion() +
+                                    "-pbkdf2-" + PasswordHasher.get().getIterations() + ".db");
+        Path work = Files.createTempFile(dir, "work-", ".db");
+
+        boolean seeded = Files.exists(template);
+        if (seeded) Files.copy(template, work, StandardCopyOption.REPLACE_EXISTING);
+
+        openedUrl = "jdbc:sqlite:" + work.toAbsolutePath();
+        System.setProperty("db.url", openedUrl);
+        if (!DatabaseHelper.initializeDatabase()) throw new SQLException(DatabaseHelper.getLastError());
+        if (seeded) return work;
+
+        System.out.println("Seeding " + orders + " orders into " + template + " (once per size)...");
+        DataSeeder seeder = new DataSeeder().orders(orders).menuItems(MENU_ITEMS).end(SEED_END).seed(42);
+        if (!seeder.run()) throw new SQLException(DataSeeder.getLastError());
+        try (Connection conn = DriverManager.getConnection(openedUrl)) {
+            checkpoint(conn);
+        }
+        Path partial = dir.resolve(template.getFileName() + ".tmp");
+        Files.copy(work, partial, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(partial, template, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return work;
+    }
+
+    /** Shuts DatabaseHelper down and deletes the copy. */
+    public static void close(Path work) throws IOException {
+        DatabaseHelper.shutdown();
+        Files.deleteIfExists(work);
+        Files.deleteIfExists(Path.of(work + "-wal"));
+        Files.deleteIfExists(Path.of(work + "-shm"));
+    }
+
+    /** Moves everything into the main file, so copying just that file copies the whole database. */
+    private static void checkpoint(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            if (rs.next() && rs.getInt(1) != 0) throw new SQLException("The seeded database could not be checkpointed (busy).");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.restaurantmanagement.benchmarks;
+
+import com.example.restaurantmanagement.CartItem;
+import com.example.restaurantmanagement.DatabaseHelper;
+import com.example.restaurantmanagement.MenuItem;
+import com.example.restaurantmanagement.Order;
+import com.example.restaurantmanagement.OrderSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The DatabaseHelper operations at 1k, 100k and 1M orders. Throughput mode gives operations per
+ * unit of time; SampleTime mode gives the latency distribution, including p0.99.
+ *
+ * Every trial runs in its own fork against its own copy of a seeded database (see
+ * {@link BenchmarkDatabase}), so writes never leak into the next measurement. The fork hashes
+ * passwords with 1,000 PBKDF2 iterations instead of the production 310,000, so validateUser
+ * times its query rather than the hash (LoginBenchmark measures the hashing cost).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dauth.pbkdf2.iterations=" + BenchmarkDatabase.PASSWORD_ITERATIONS)
+@State(Scope.Benchmark)
+public class DataAccessBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    private Path database;
+    private final AtomicLong nextTransaction = new AtomicLong();
+    private MenuItem orderedItem;
+    private int ratedItemId;
+    private List<CartItem> cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(orders);
+        List<MenuItem> menu = DatabaseHelper.getAllMenuItems();
+        orderedItem = menu.get(0);
+        ratedItemId = DatabaseHelper.getAllAverageRatings().keySet().iterator().next();
+        cart = new ArrayList<>();
+        for (MenuItem item : menu.subList(0, 3)) {
+            cart.add(new CartItem(item, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkDatabase.close(database);
+    }
+
+    // Reads every line of every order, so it is reported per second rather than per millisecond.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Order> getAllOrdersWithDetails() {
+        return DatabaseHelper.getAllOrdersWithDetails();
+    }
+
+    @Benchmark
+    public List<Order> getOrdersPage() {
+        return DatabaseHelper.getOrdersPage(null, null, 0, 50);
+    }
+
+    @Benchmark
+    public List<OrderSummary> getOrderHistoryPage() {
+        return DatabaseHelper.getOrderHistoryPage(BenchmarkDatabase.USER_EMAIL, null, true, null, 0, 30);
+    }
+
+    @Benchmark
+    public boolean placeOrder() {
+        return DatabaseHelper.placeOrder("jmh-" + nextTransaction.incrementAndGet(), BenchmarkDatabase.USER_EMAIL, orderedItem.getName(), 1, orderedItem.getPrice());
+    }
+
+    @Benchmark
+    public boolean placeOrderBatch() {
+        return DatabaseHelper.placeOrderBatch("jmh-batch-" + nextTransaction.incrementAndGet(), BenchmarkDatabase.USER_EMAIL, cart);
+    }
+
+    @Benchmark
+    public List<MenuItem> getAllMenuItems() {
+        return DatabaseHelper.getAllMenuItems();
+    }
+
+    @Benchmark
+    public boolean validateUser() {
+        return DatabaseHelper.validateUser(BenchmarkDatabase.USER_EMAIL, BenchmarkDatabase.USER_PASSWORD);
+    }
+
+    @Benchmark
+    public double getAverageRating() {
+        return DatabaseHelper.getAverageRating(ratedItemId);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> getAllAverageRatings() {
+        return DatabaseHelper.getAllAverageRatings();
+    }
+}
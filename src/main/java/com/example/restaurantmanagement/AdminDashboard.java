@@ -1,24 +1,41 @@
 package com.example.restaurantmanagement;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
-import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public class AdminDashboard {
 
@@ -26,6 +43,9 @@ public class AdminDashboard {
     @FXML private VBox viewMenuView;
     @FXML private VBox addItemView;
     @FXML private VBox viewOrdersView;
+    @FXML private VBox performanceView;
+    @FXML private VBox analyticsView;
+    @FXML private VBox kitchenView;
 
     // View Menu / Edit Components
     @FXML private ListView<MenuItem> menuListView;
@@ -48,6 +68,103 @@ public class AdminDashboard {
 
     // View Orders Components
     @FXML private ListView<Order> ordersListView;
+    @FXML private ComboBox<String> orderStatusFilter;
+    @FXML private DatePicker orderExportFromPicker;
+    @FXML private DatePicker orderExportToPicker;
+    @FXML private ComboBox<String> orderExportFormatBox;
+    @FXML private CheckBox orderExportGzipBox;
+    @FXML private Button orderExportButton;
+    @FXML private ProgressBar orderExportProgress;
+    @FXML private Label orderExportLabel;
+
+    // Kitchen Components
+    @FXML private ComboBox<String> kitchenStationBox;
+    @FXML private Label kitchenStatusLabel;
+    @FXML private Label kitchenWaitingLabel;
+    @FXML private Label kitchenPreparingLabel;
+    @FXML private ListView<KitchenTicket> kitchenWaitingList;
+    @FXML private ListView<KitchenTicket> kitchenPreparingList;
+
+    // Performance Components
+    @FXML private TableView<LatencyHistogram.Snapshot> metricsTable;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, String> metricNameColumn;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricCallsColumn;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricErrorsColumn;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricP50Column;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricP95Column;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricP99Column;
+    @FXML private TableColumn<LatencyHistogram.Snapshot, Long> metricMaxColumn;
+    @FXML private Label performanceStatusLabel;
+
+    // Analytics Components
+    @FXML private ComboBox<String> analyticsRangeBox;
+    @FXML private ComboBox<String> analyticsCategoryBox;
+    @FXML private Label analyticsRevenueLabel;
+    @FXML private Label analyticsOrdersLabel;
+    @FXML private Label analyticsAverageLabel;
+    @FXML private Label analyticsPendingLabel;
+    @FXML private Label analyticsRemovedLabel;
+    @FXML private Label analyticsStatusLabel;
+    @FXML private BarChart<String, Number> salesChart;
+    @FXML private BarChart<Number, String> topItemsChart;
+    @FXML private PieChart categoryChart;
+    @FXML private ProgressIndicator analyticsLoadingIndicator;
+
+    // Menu Import / Export Components
+    @FXML private Label menuTransferLabel;
+    @FXML private ProgressBar menuTransferProgress;
+    @FXML private Button menuImportButton;
+    @FXML private Button menuExportButton;
+
+    @FXML private ProgressIndicator menuLoadingIndicator;
+    @FXML private ProgressIndicator ordersLoadingIndicator;
+
+    // Database work for each view; leaving a view drops the results it was still waiting for.
+    private ViewTasks menuTasks;
+    private ViewTasks addTasks;
+    private ViewTasks orderTasks;
+    private ViewTasks performanceTasks;
+    private ViewTasks analyticsTasks;
+
+    private static final int ORDERS_PAGE_SIZE = 50;
+    private final ObservableList<Order> orderItems = FXCollections.observableArrayList();
+    private boolean hasMoreOrders = false;
+    private boolean loadingOrders = false;
+
+    // Live feed: while the orders view is open, changes since orderFeedSeq are polled and applied
+    // to orderItems one by one instead of reloading the list.
+    private static final Duration ORDER_FEED_INTERVAL = Duration.millis(500);
+    private static final int ORDER_FEED_BATCH = 200;
+    // The order the list is kept in, matching getOrdersPage: newest first, then by id.
+    private static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getOrderDate, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingInt(Order::getId)
+            .reversed();
+    private Timeline orderFeed;
+    private long orderFeedSeq = -1; // -1 until the feed knows where to start
+    private boolean pollingOrders = false;
+    private boolean pageWanted = false;
+
+    // The performance table is refreshed from the live histograms while it is on screen.
+    private static final Duration METRICS_REFRESH_INTERVAL = Duration.seconds(1);
+    private Timeline metricsRefresh;
+
+    // The analytics reports only read the rollup tables, so they are cheap to refresh while shown.
+    private static final Duration ANALYTICS_REFRESH_INTERVAL = Duration.seconds(10);
+    private static final String ALL_CATEGORIES = "All categories";
+    private static final int TOP_ITEMS = 10;
+    private Timeline analyticsRefresh;
+    private SalesFigure analyticsItem; // Item whose sales the chart shows, picked from the top items; null for all
+    private boolean analyticsStale = false; // Asked for again while a refresh was running, maybe with other filters
+    private boolean updatingCategories = false; // The category list is being replaced, not picked from
+
+    // The kitchen board reads the in-memory queue, so it is redrawn as soon as the queue changes,
+    // and at least once a minute for the time left on each ticket.
+    private static final Duration KITCHEN_REFRESH_INTERVAL = Duration.millis(500);
+    private static final int KITCHEN_STATIONS = 4;
+    private Timeline kitchenRefresh;
+    private long kitchenVersion = -1;
+    private long kitchenMinute = -1;
 
     private File selectedImageFile = null;
 
@@ -60,11 +177,31 @@ public class AdminDashboard {
             addStatusComboBox.setValue("Available");
         }
 
+        menuTasks = new ViewTasks(viewMenuView, menuLoadingIndicator);
+        addTasks = new ViewTasks(addItemView, null);
+        orderTasks = new ViewTasks(viewOrdersView, ordersLoadingIndicator);
+        performanceTasks = new ViewTasks(performanceView, null);
+        analyticsTasks = new ViewTasks(analyticsView, analyticsLoadingIndicator);
+
+        setupMenuList();
         refreshMenuItems();
         
         if (ordersListView != null) {
+            ordersListView.setItems(orderItems);
             ordersListView.setCellFactory(lv -> new OrderCardCell());
+            orderFeed = new Timeline(new KeyFrame(ORDER_FEED_INTERVAL, e -> pollOrders()));
+            orderFeed.setCycleCount(Animation.INDEFINITE);
         }
+        if (orderStatusFilter != null) {
+            orderStatusFilter.setItems(FXCollections.observableArrayList("All", "Pending", "Accepted", "Removed"));
+            orderStatusFilter.setValue("All");
+            orderStatusFilter.valueProperty().addListener((obs, oldV, newV) -> refreshOrders());
+        }
+
+        setupOrderExport();
+        setupKitchen();
+        setupMetricsTable();
+        setupAnalytics();
         
         showView(viewMenuView);
     }
@@ -73,15 +210,19 @@ public class AdminDashboard {
     @FXML protected void onViewMenuClick() { showView(viewMenuView); refreshMenuItems(); }
     @FXML protected void onAddItemClick() { showView(addItemView); clearAddFields(); }
     @FXML protected void onViewOrdersClick() { showView(viewOrdersView); refreshOrders(); }
+    @FXML protected void onPerformanceClick() { showView(performanceView); refreshMetrics(); }
+    @FXML protected void onAnalyticsClick() { showView(analyticsView); refreshAnalytics(); }
+    @FXML protected void onKitchenClick() { showView(kitchenView); refreshKitchen(true); }
 
     @FXML
     protected void onLogoutClick() {
+        if (orderFeed != null) orderFeed.stop();
+        if (metricsRefresh != null) metricsRefresh.stop();
+        if (analyticsRefresh != null) analyticsRefresh.stop();
+        if (kitchenRefresh != null) kitchenRefresh.stop();
+        KitchenFeed.get().stop();
         try {
-            Stage stage = (Stage) viewMenuView.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(UserLogin.class.getResource("UserLogin.fxml"));
-            Scene scene = new Scene(fxmlLoader.load(), 400, 400);
-            stage.setTitle("Login - Restaurant Management");
-            stage.setScene(scene);
+            UserLogin.showLogin((Stage) viewMenuView.getScene().getWindow());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -91,16 +232,36 @@ public class AdminDashboard {
         viewMenuView.setVisible(false);
         addItemView.setVisible(false);
         viewOrdersView.setVisible(false);
+        performanceView.setVisible(false);
+        analyticsView.setVisible(false);
+        kitchenView.setVisible(false);
         view.setVisible(true);
         view.toFront();
+        if (orderFeed != null) {
+            if (view == viewOrdersView) orderFeed.play();
+            else orderFeed.stop();
+        }
+        if (metricsRefresh != null) {
+            if (view == performanceView) metricsRefresh.play();
+            else metricsRefresh.stop();
+        }
+        if (analyticsRefresh != null) {
+            if (view == analyticsView) analyticsRefresh.play();
+            else analyticsRefresh.stop();
+        }
+        if (kitchenRefresh != null) {
+            if (view == kitchenView) kitchenRefresh.play();
+            else kitchenRefresh.stop();
+            // Orders from every terminal reach the board through the database, not through this screen.
+            if (view == kitchenView) KitchenFeed.get().start();
+            else KitchenFeed.get().stop();
+        }
     }
 
     // --- View Menu / Edit Logic ---
 
-    private void refreshMenuItems() {
+    private void setupMenuList() {
         if (menuListView == null) return;
-        List<MenuItem> items = DatabaseHelper.getAllMenuItems();
-        menuListView.setItems(FXCollections.observableArrayList(items));
         menuListView.setCellFactory(lv -> new ListCell<>() {
             @Override
             protected void updateItem(MenuItem item, boolean empty) {
@@ -123,6 +284,14 @@ public class AdminDashboard {
         });
     }
 
+    private void refreshMenuItems() {
+        if (menuListView == null) return;
+        // DatabaseHelper keeps the catalog current after every add, update and delete;
+        // only the first call actually reads the database.
+        menuTasks.run(() -> MenuCatalog.get().getAll(),
+                items -> menuListView.setItems(FXCollections.observableArrayList(items)));
+    }
+
     @FXML
     protected void onEditChooseImageClick() {
         File file = chooseImage();
@@ -142,20 +311,24 @@ public class AdminDashboard {
             double price = Double.parseDouble(editPriceField.getText());
             String status = editStatusComboBox.getValue();
             String desc = editDescriptionField.getText();
-            String storedPath = sel.getImagePath();
-            
-            if (selectedImageFile != null) {
-                storedPath = DatabaseHelper.storeImageFile(Path.of(selectedImageFile.getAbsolutePath()));
-            }
-            
-            if (DatabaseHelper.updateMenuItem(sel.getId(), name, category, price, status, desc, storedPath)) {
+            String currentPath = sel.getImagePath();
+            File imageFile = selectedImageFile;
+            int id = sel.getId();
+
+            editStatusLabel.setText("Saving...");
+            editStatusLabel.setStyle("-fx-text-fill: gray;");
+            menuTasks.run(() -> {
+                String storedPath = imageFile != null ? DatabaseHelper.storeImageFile(Path.of(imageFile.getAbsolutePath())) : currentPath;
+                if (!DatabaseHelper.updateMenuItem(id, name, category, price, status, desc, storedPath)) throw DatabaseHelper.failure();
+                return null;
+            }, done -> {
                 editStatusLabel.setText("Updated successfully.");
                 editStatusLabel.setStyle("-fx-text-fill: green;");
                 refreshMenuItems();
-            } else {
-                editStatusLabel.setText("Update failed: " + DatabaseHelper.getLastError());
+            }, error -> {
+                editStatusLabel.setText("Update failed: " + error.getMessage());
                 editStatusLabel.setStyle("-fx-text-fill: red;");
-            }
+            });
         } catch (NumberFormatException e) {
             editStatusLabel.setText("Invalid price.");
             editStatusLabel.setStyle("-fx-text-fill: red;");
@@ -166,15 +339,19 @@ public class AdminDashboard {
     protected void onDeleteClick() {
         MenuItem sel = menuListView.getSelectionModel().getSelectedItem();
         if (sel == null) { editStatusLabel.setText("Select an item to delete."); return; }
-        if (DatabaseHelper.deleteMenuItem(sel.getId())) {
+        int id = sel.getId();
+        menuTasks.run(() -> {
+            if (!DatabaseHelper.deleteMenuItem(id)) throw DatabaseHelper.failure();
+            return null;
+        }, done -> {
             editStatusLabel.setText("Deleted successfully.");
             editStatusLabel.setStyle("-fx-text-fill: green;");
             refreshMenuItems();
             clearEditFields();
-        } else {
-            editStatusLabel.setText("Delete failed: " + DatabaseHelper.getLastError());
+        }, error -> {
+            editStatusLabel.setText("Delete failed: " + error.getMessage());
             editStatusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     private void clearEditFields() {
@@ -186,6 +363,92 @@ public class AdminDashboard {
         selectedImageFile = null;
     }
 
+    // --- Menu Import / Export Logic ---
+
+    // Imports and exports run on a database worker, not as view tasks: they carry on, and report
+    // back, even if the admin moves to another view meanwhile.
+
+    @FXML
+    protected void onImportMenuClick() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Menu");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Menu Files (CSV, JSON)", "*.csv", "*.json", "*.jsonl", "*.ndjson", "*.csv.gz", "*.json.gz"));
+        File file = chooser.showOpenDialog(viewMenuView.getScene().getWindow());
+        if (file == null) return;
+
+        startTransfer(menuTransferProgress, menuTransferLabel, "Importing " + file.getName() + "...", menuImportButton, menuExportButton);
+        AsyncDatabase.run(() -> DatabaseHelper.importMenuItems(file.toPath(), transferProgress(menuTransferProgress)), result -> {
+            finishTransfer(menuTransferProgress, menuTransferLabel, result.summary(), result.isComplete() && result.getRejected() == 0,
+                    menuImportButton, menuExportButton);
+            refreshMenuItems();
+            if (result.getRejected() > 0 || !result.isComplete()) showImportProblems(file, result);
+        }, error -> finishTransfer(menuTransferProgress, menuTransferLabel, "Import failed: " + error.getMessage(), false,
+                menuImportButton, menuExportButton));
+    }
+
+    @FXML
+    protected void onExportMenuClick() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Menu");
+        chooser.setInitialFileName("menu-" + LocalDate.now() + ".csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Files", "*.json"));
+        File file = chooser.showSaveDialog(viewMenuView.getScene().getWindow());
+        if (file == null) return;
+
+        startTransfer(menuTransferProgress, menuTransferLabel, "Exporting to " + file.getName() + "...", menuImportButton, menuExportButton);
+        AsyncDatabase.run(() -> {
+            long written = DatabaseHelper.exportMenuItems(file.toPath(), transferProgress(menuTransferProgress));
+            if (written < 0) throw DatabaseHelper.failure();
+            return written;
+        }, written -> {
+            String message = String.format("Exported %,d items to %s", written, file.getName());
+            finishTransfer(menuTransferProgress, menuTransferLabel, message, true, menuImportButton, menuExportButton);
+        }, error -> finishTransfer(menuTransferProgress, menuTransferLabel, "Export failed: " + error.getMessage(), false,
+                menuImportButton, menuExportButton));
+    }
+
+    private void startTransfer(ProgressBar progress, Label label, String message, Button... buttons) {
+        for (Button button : buttons) button.setDisable(true);
+        progress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        progress.setVisible(true);
+        progress.setManaged(true);
+        label.setText(message);
+        label.setStyle("-fx-text-fill: gray;");
+    }
+
+    // Progress reports arrive on the database worker.
+    private static RecordIO.Progress transferProgress(ProgressBar progress) {
+        return (done, total) -> {
+            double fraction = total > 0 ? Math.min(1.0, (double) done / total) : ProgressBar.INDETERMINATE_PROGRESS;
+            Platform.runLater(() -> progress.setProgress(fraction));
+        };
+    }
+
+    private void finishTransfer(ProgressBar progress, Label label, String message, boolean ok, Button... buttons) {
+        for (Button button : buttons) button.setDisable(false);
+        progress.setVisible(false);
+        progress.setManaged(false);
+        label.setText(message);
+        label.setStyle(ok ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
+    }
+
+    private void showImportProblems(File file, MenuImportResult result) {
+        Alert alert = new Alert(result.isComplete() ? Alert.AlertType.WARNING : Alert.AlertType.ERROR);
+        alert.setTitle("Menu Import");
+        alert.setHeaderText(file.getName() + ": " + result.summary());
+        StringBuilder details = new StringBuilder(String.join("\n", result.getErrors()));
+        if (result.getRejected() > result.getErrors().size()) {
+            details.append(String.format("%n... and %,d more rejected rows", result.getRejected() - result.getErrors().size()));
+        }
+        TextArea text = new TextArea(details.toString());
+        text.setEditable(false);
+        text.setWrapText(true);
+        alert.getDialogPane().setContent(text);
+        alert.show();
+    }
+
     // --- Add Item Logic ---
 
     @FXML
@@ -205,20 +468,22 @@ public class AdminDashboard {
             double price = Double.parseDouble(addPriceField.getText());
             String status = addStatusComboBox.getValue();
             String desc = addDescriptionField.getText();
-            String storedPath = null;
-            
-            if (selectedImageFile != null) {
-                storedPath = DatabaseHelper.storeImageFile(Path.of(selectedImageFile.getAbsolutePath()));
-            }
-            
-            if (DatabaseHelper.addMenuItem(name, category, price, status, desc, storedPath)) {
+            File imageFile = selectedImageFile;
+
+            addStatusLabel.setText("Saving...");
+            addStatusLabel.setStyle("-fx-text-fill: gray;");
+            addTasks.run(() -> {
+                String storedPath = imageFile != null ? DatabaseHelper.storeImageFile(Path.of(imageFile.getAbsolutePath())) : null;
+                if (!DatabaseHelper.addMenuItem(name, category, price, status, desc, storedPath)) throw DatabaseHelper.failure();
+                return null;
+            }, done -> {
                 addStatusLabel.setText("Item added successfully.");
                 addStatusLabel.setStyle("-fx-text-fill: green;");
                 clearAddFields();
-            } else {
-                addStatusLabel.setText("Add failed: " + DatabaseHelper.getLastError());
+            }, error -> {
+                addStatusLabel.setText("Add failed: " + error.getMessage());
                 addStatusLabel.setStyle("-fx-text-fill: red;");
-            }
+            });
         } catch (NumberFormatException e) {
             addStatusLabel.setText("Invalid price.");
             addStatusLabel.setStyle("-fx-text-fill: red;");
@@ -239,35 +504,465 @@ public class AdminDashboard {
 
     private void refreshOrders() {
         if (ordersListView == null) return;
-        List<Order> groupedOrders = getGroupedOrdersFromDB();
-        ordersListView.setItems(FXCollections.observableArrayList(groupedOrders));
+        // A page still loading for the old filter must not be appended to the new list.
+        orderTasks.cancelAll();
+        pollingOrders = false;
+        pageWanted = false;
+        orderItems.clear();
+        hasMoreOrders = true;
+        orderFeedSeq = -1;
+        ordersListView.scrollTo(0);
+
+        // Note where the change log stands before reading the first page, so nothing that changes
+        // while the page loads is missed. Seeing a change twice is harmless.
+        loadingOrders = true;
+        orderTasks.run(DatabaseHelper::getLatestOrderChange, seq -> {
+            orderFeedSeq = seq;
+            loadingOrders = false;
+            loadMoreOrders();
+        }, error -> loadingOrders = false);
     }
 
-    private List<Order> getGroupedOrdersFromDB() {
-        Map<String, Order> groupedOrdersMap = new LinkedHashMap<>();
-        List<Order> allOrders = DatabaseHelper.getAllOrdersWithDetails();
+    // Called by the cells as the user scrolls near the end of what has been loaded so far.
+    private void loadMoreOrders() {
+        if (!hasMoreOrders || loadingOrders) return;
+        if (pollingOrders) {
+            // Pages and feed updates are applied one at a time; see pollOrders.
+            pageWanted = true;
+            return;
+        }
+        loadingOrders = true;
+        Order last = orderItems.isEmpty() ? null : orderItems.get(orderItems.size() - 1);
+        String status = selectedOrderStatus();
+        String afterDate = last == null ? null : last.getOrderDate();
+        int afterId = last == null ? 0 : last.getId();
+        orderTasks.run(() -> DatabaseHelper.getOrdersPage(status, afterDate, afterId, ORDERS_PAGE_SIZE), page -> {
+            orderItems.addAll(page);
+            hasMoreOrders = page.size() == ORDERS_PAGE_SIZE;
+            loadingOrders = false;
+        }, error -> loadingOrders = false);
+    }
 
-        if (allOrders == null) return new ArrayList<>();
+    /**
+     * Fetches the orders placed or changed since the last poll. Never runs alongside a page load:
+     * a page read before a change but applied after it would otherwise bring back the old copy.
+     */
+    private void pollOrders() {
+        if (orderFeedSeq < 0 || pollingOrders || loadingOrders || !viewOrdersView.isVisible()) return;
+        pollingOrders = true;
+        long after = orderFeedSeq;
+        orderTasks.poll(() -> DatabaseHelper.getOrderChanges(after, ORDER_FEED_BATCH), changes -> {
+            pollingOrders = false;
+            applyOrderChanges(changes);
+            if (changes.size() == ORDER_FEED_BATCH) {
+                pollOrders(); // More are waiting
+            } else if (pageWanted) {
+                pageWanted = false;
+                loadMoreOrders();
+            }
+        }, error -> pollingOrders = false);
+    }
 
-        for (Order order : allOrders) {
-            String transactionId = order.getTransactionId();
-            if (transactionId == null) continue;
+    /**
+     * Applies each changed order to the list in place. The list is sorted, so each change is a
+     * binary search plus one insert, replace or remove; rows the admin is looking at stay put.
+     */
+    private void applyOrderChanges(List<Order> changes) {
+        if (changes.isEmpty()) return;
+        String status = selectedOrderStatus();
+        Order selected = ordersListView.getSelectionModel().getSelectedItem();
+        int firstVisible = firstVisibleOrderIndex();
+        int shift = 0;
 
-            Order groupedOrder = groupedOrdersMap.get(transactionId);
-            if (groupedOrder == null) {
-                groupedOrder = new Order(
-                    order.getId(), order.getUserEmail(), order.getItemName() + " x" + order.getQuantity(), 
-                    order.getQuantity(), order.getTotalPrice(), order.getOrderDate(), order.getStatus(),
-                    order.getUserName(), order.getUserMobile(), order.getUserAddress()
-                );
-                groupedOrder.setTransactionId(transactionId);
-                groupedOrdersMap.put(transactionId, groupedOrder);
-            } else {
-                groupedOrder.setItemName(groupedOrder.getItemName() + "\n" + order.getItemName() + " x" + order.getQuantity());
-                groupedOrder.setTotalPrice(groupedOrder.getTotalPrice() + order.getTotalPrice());
+        for (Order order : changes) {
+            orderFeedSeq = Math.max(orderFeedSeq, order.getChangeSeq());
+            boolean matches = status == null || status.equalsIgnoreCase(order.getStatus());
+            int index = Collections.binarySearch(orderItems, order, NEWEST_FIRST);
+            if (index >= 0) {
+                if (matches) {
+                    orderItems.set(index, order);
+                } else {
+                    orderItems.remove(index);
+                    if (index < firstVisible + shift) shift--;
+                }
+            } else if (matches) {
+                int insertAt = -index - 1;
+                // Orders that belong after the last loaded page arrive with that page instead.
+                if (insertAt < orderItems.size() || !hasMoreOrders) {
+                    orderItems.add(insertAt, order);
+                    if (insertAt < firstVisible + shift) shift++;
+                }
+            }
+        }
+
+        if (shift != 0 && firstVisible > 0) ordersListView.scrollTo(Math.max(0, firstVisible + shift));
+        if (selected != null) {
+            int index = Collections.binarySearch(orderItems, selected, NEWEST_FIRST);
+            if (index >= 0 && ordersListView.getSelectionModel().getSelectedIndex() != index) {
+                ordersListView.getSelectionModel().select(index);
             }
         }
-        return new ArrayList<>(groupedOrdersMap.values());
+    }
+
+    private int firstVisibleOrderIndex() {
+        if (!(ordersListView.lookup(".virtual-flow") instanceof VirtualFlow<?> flow)) return 0;
+        IndexedCell<?> first = flow.getFirstVisibleCell();
+        return first == null ? 0 : first.getIndex();
+    }
+
+    private String selectedOrderStatus() {
+        String value = orderStatusFilter == null ? null : orderStatusFilter.getValue();
+        return value == null || "All".equals(value) ? null : value;
+    }
+
+    // --- Order Export Logic ---
+
+    private static final String CSV_FORMAT = "CSV";
+    private static final String JSON_LINES_FORMAT = "JSON Lines";
+
+    private void setupOrderExport() {
+        if (orderExportFormatBox == null) return;
+        // Order days are UTC, as in the analytics view.
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        orderExportFromPicker.setValue(today.withDayOfMonth(1));
+        orderExportToPicker.setValue(today);
+        orderExportFormatBox.setItems(FXCollections.observableArrayList(CSV_FORMAT, JSON_LINES_FORMAT));
+        orderExportFormatBox.setValue(CSV_FORMAT);
+    }
+
+    @FXML
+    protected void onExportOrdersClick() {
+        LocalDate from = orderExportFromPicker.getValue();
+        LocalDate to = orderExportToPicker.getValue();
+        if (from != null && to != null && from.isAfter(to)) {
+            orderExportLabel.setText("The start date is after the end date.");
+            orderExportLabel.setStyle("-fx-text-fill: red;");
+            return;
+        }
+        String extension = (JSON_LINES_FORMAT.equals(orderExportFormatBox.getValue()) ? ".ndjson" : ".csv")
+                + (orderExportGzipBox.isSelected() ? ".gz" : "");
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Order Lines");
+        chooser.setInitialFileName("orders-" + (from != null ? from : "start") + "-to-" + (to != null ? to : "end") + extension);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Export Files", "*" + extension));
+        File file = chooser.showSaveDialog(viewOrdersView.getScene().getWindow());
+        if (file == null) return;
+
+        // The pickers include the end day; the export's range does not.
+        String fromDay = from != null ? from.toString() : null;
+        String toDay = to != null ? to.plusDays(1).toString() : null;
+        startTransfer(orderExportProgress, orderExportLabel, "Exporting to " + file.getName() + "...", orderExportButton);
+        AsyncDatabase.run(() -> {
+            long lines = DatabaseHelper.exportOrderLines(file.toPath(), fromDay, toDay, transferProgress(orderExportProgress));
+            if (lines < 0) throw DatabaseHelper.failure();
+            return lines;
+        }, lines -> {
+            String message = String.format("Exported %,d order lines to %s", lines, file.getName());
+            finishTransfer(orderExportProgress, orderExportLabel, message, true, orderExportButton);
+        }, error -> finishTransfer(orderExportProgress, orderExportLabel, "Export failed: " + error.getMessage(), false, orderExportButton));
+    }
+
+    // --- Kitchen Logic ---
+
+    private void setupKitchen() {
+        if (kitchenWaitingList == null) return;
+        List<String> stations = new ArrayList<>();
+        for (int i = 1; i <= KITCHEN_STATIONS; i++) stations.add("Station " + i);
+        kitchenStationBox.setItems(FXCollections.observableArrayList(stations));
+        kitchenStationBox.setValue(stations.get(0));
+        kitchenWaitingList.setCellFactory(lv -> new KitchenTicketCell());
+        kitchenPreparingList.setCellFactory(lv -> new KitchenTicketCell());
+
+        kitchenRefresh = new Timeline(new KeyFrame(KITCHEN_REFRESH_INTERVAL, e -> refreshKitchen(false)));
+        kitchenRefresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    private void refreshKitchen(boolean force) {
+        if (kitchenWaitingList == null) return;
+        KitchenQueue queue = KitchenQueue.get();
+        long version = queue.getVersion();
+        long minute = System.currentTimeMillis() / 60_000;
+        if (!force && version == kitchenVersion && minute == kitchenMinute) return;
+        kitchenVersion = version;
+        kitchenMinute = minute;
+
+        // Reading the queue never blocks the stations, so this is cheap enough for the FX thread.
+        List<KitchenTicket> waiting = queue.getWaiting();
+        List<KitchenTicket> preparing = queue.getPreparing();
+        replaceKeepingSelection(kitchenWaitingList, waiting);
+        replaceKeepingSelection(kitchenPreparingList, preparing);
+        kitchenWaitingLabel.setText("Waiting (" + waiting.size() + ")");
+        kitchenPreparingLabel.setText("Preparing (" + preparing.size() + ")");
+    }
+
+    private static void replaceKeepingSelection(ListView<KitchenTicket> list, List<KitchenTicket> tickets) {
+        KitchenTicket selected = list.getSelectionModel().getSelectedItem();
+        list.getItems().setAll(tickets);
+        if (selected != null && tickets.contains(selected)) list.getSelectionModel().select(selected);
+    }
+
+    @FXML
+    protected void onClaimTicketClick() {
+        String station = kitchenStationBox.getValue();
+        KitchenTicket ticket = KitchenQueue.get().claim(station);
+        if (ticket == null) showKitchenStatus("Nothing is waiting.", "gray");
+        else showKitchenStatus(station + " is preparing ticket #" + ticket.getId() + ".", "green");
+        refreshKitchen(true);
+        if (ticket != null) kitchenPreparingList.getSelectionModel().select(ticket);
+    }
+
+    @FXML
+    protected void onRushTicketClick() {
+        KitchenTicket ticket = kitchenWaitingList.getSelectionModel().getSelectedItem();
+        if (ticket == null) {
+            showKitchenStatus("Select a waiting ticket to rush.", "red");
+        } else if (KitchenQueue.get().rush(ticket)) {
+            showKitchenStatus("Ticket #" + ticket.getId() + " rushed.", "green");
+        } else {
+            showKitchenStatus("Ticket #" + ticket.getId() + " is no longer waiting, or is already rushed.", "red");
+        }
+        refreshKitchen(true);
+    }
+
+    @FXML
+    protected void onCompleteTicketClick() {
+        KitchenTicket ticket = kitchenPreparingList.getSelectionModel().getSelectedItem();
+        if (ticket == null) {
+            showKitchenStatus("Select a ticket being prepared.", "red");
+        } else if (KitchenQueue.get().complete(ticket)) {
+            showKitchenStatus("Ticket #" + ticket.getId() + " done.", "green");
+        } else {
+            showKitchenStatus("Ticket #" + ticket.getId() + " was cancelled.", "red");
+        }
+        refreshKitchen(true);
+    }
+
+    @FXML
+    protected void onReleaseTicketClick() {
+        KitchenTicket ticket = kitchenPreparingList.getSelectionModel().getSelectedItem();
+        if (ticket == null) {
+            showKitchenStatus("Select a ticket being prepared.", "red");
+        } else if (KitchenQueue.get().release(ticket)) {
+            showKitchenStatus("Ticket #" + ticket.getId() + " is back in the queue.", "gray");
+        } else {
+            showKitchenStatus("Ticket #" + ticket.getId() + " was cancelled.", "red");
+        }
+        refreshKitchen(true);
+    }
+
+    private void showKitchenStatus(String message, String color) {
+        kitchenStatusLabel.setText(message);
+        kitchenStatusLabel.setStyle("-fx-text-fill: " + color + ";");
+    }
+
+    // --- Performance Logic ---
+
+    private void setupMetricsTable() {
+        if (metricsTable == null) return;
+        metricNameColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getName()));
+        metricCallsColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getCount()));
+        metricErrorsColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getErrors()));
+        millisColumn(metricP50Column, LatencyHistogram.Snapshot::getP50);
+        millisColumn(metricP95Column, LatencyHistogram.Snapshot::getP95);
+        millisColumn(metricP99Column, LatencyHistogram.Snapshot::getP99);
+        millisColumn(metricMaxColumn, LatencyHistogram.Snapshot::getMax);
+
+        metricsRefresh = new Timeline(new KeyFrame(METRICS_REFRESH_INTERVAL, e -> refreshMetrics()));
+        metricsRefresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    // Holds nanoseconds, so the column sorts by the exact value, and shows milliseconds.
+    private static void millisColumn(TableColumn<LatencyHistogram.Snapshot, Long> column,
+                                     Function<LatencyHistogram.Snapshot, Long> nanos) {
+        column.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(nanos.apply(c.getValue())));
+        column.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(Long value, boolean empty) {
+                super.updateItem(value, empty);
+                setText(empty || value == null ? null : String.format("%.3f", Metrics.millis(value)));
+            }
+        });
+    }
+
+    private void refreshMetrics() {
+        if (metricsTable == null) return;
+        // Snapshots only read counters, so this is cheap enough for the FX thread.
+        metricsTable.getItems().setAll(Metrics.snapshot());
+        metricsTable.sort();
+    }
+
+    @FXML
+    protected void onResetMetricsClick() {
+        Metrics.reset();
+        refreshMetrics();
+        performanceStatusLabel.setText("Counters reset.");
+        performanceStatusLabel.setStyle("-fx-text-fill: gray;");
+    }
+
+    @FXML
+    protected void onExportMetricsClick() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Latency Snapshot");
+        chooser.setInitialFileName("latency-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Text Files", "*.txt"));
+        File file = chooser.showSaveDialog(performanceView.getScene().getWindow());
+        if (file == null) return;
+
+        performanceTasks.run(() -> {
+            try {
+                Metrics.export(file.toPath());
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, saved -> {
+            performanceStatusLabel.setText("Saved to " + saved.getName());
+            performanceStatusLabel.setStyle("-fx-text-fill: green;");
+        }, error -> {
+            performanceStatusLabel.setText("Export failed: " + error.getMessage());
+            performanceStatusLabel.setStyle("-fx-text-fill: red;");
+        });
+    }
+
+    // --- Analytics Logic ---
+
+    // Everything one refresh of the analytics view shows, read on a database worker.
+    private static final class SalesReport {
+        Map<String, SalesFigure> byStatus;
+        List<SalesFigure> overTime;
+        List<SalesFigure> topItems;
+        List<SalesFigure> categories;
+    }
+
+    private void setupAnalytics() {
+        if (analyticsRangeBox == null) return;
+        analyticsRangeBox.setItems(FXCollections.observableArrayList("Today", "Last 7 days", "Last 30 days", "Last 365 days"));
+        analyticsRangeBox.setValue("Today");
+        analyticsRangeBox.valueProperty().addListener((obs, oldV, newV) -> refreshAnalytics());
+        analyticsCategoryBox.setItems(FXCollections.observableArrayList(ALL_CATEGORIES));
+        analyticsCategoryBox.setValue(ALL_CATEGORIES);
+        analyticsCategoryBox.valueProperty().addListener((obs, oldV, newV) -> {
+            if (newV == null || updatingCategories) return;
+            analyticsItem = null;
+            refreshAnalytics();
+        });
+        salesChart.setAnimated(false);
+        topItemsChart.setAnimated(false);
+        categoryChart.setAnimated(false);
+
+        analyticsRefresh = new Timeline(new KeyFrame(ANALYTICS_REFRESH_INTERVAL, e -> refreshAnalytics()));
+        analyticsRefresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    private int analyticsDays() {
+        switch (analyticsRangeBox.getValue()) {
+            case "Last 7 days": return 7;
+            case "Last 30 days": return 30;
+            case "Last 365 days": return 365;
+            default: return 1;
+        }
+    }
+
+    private void refreshAnalytics() {
+        if (analyticsRangeBox == null) return;
+        // One refresh at a time; a cancelled one no longer counts, since leaving the view drops it.
+        if (analyticsTasks.isBusy()) {
+            analyticsStale = true;
+            return;
+        }
+        analyticsStale = false;
+        // Days are UTC, like the order timestamps the rollups are built from.
+        int days = analyticsDays();
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        String from = tomorrow.minusDays(days).toString();
+        String to = tomorrow.toString();
+        boolean hourly = days == 1;
+        String category = ALL_CATEGORIES.equals(analyticsCategoryBox.getValue()) ? null : analyticsCategoryBox.getValue();
+        SalesFigure item = analyticsItem;
+
+        analyticsTasks.run(() -> {
+            SalesReport report = new SalesReport();
+            report.byStatus = DatabaseHelper.getSalesByStatus(from, to);
+            report.overTime = item != null
+                    ? DatabaseHelper.getItemSalesOverTime(item.getId(), from, to, hourly)
+                    : DatabaseHelper.getSalesOverTime(from, to, hourly, category);
+            report.topItems = DatabaseHelper.getTopItems(from, to, TOP_ITEMS);
+            report.categories = DatabaseHelper.getCategorySales(from, to);
+            return report;
+        }, report -> {
+            if (analyticsStale) {
+                refreshAnalytics();
+                return;
+            }
+            showSalesReport(report, hourly, category, item);
+        }, error -> {
+            if (analyticsStale) {
+                refreshAnalytics();
+                return;
+            }
+            analyticsStatusLabel.setText("Could not load sales: " + error.getMessage());
+            analyticsStatusLabel.setStyle("-fx-text-fill: red;");
+        });
+    }
+
+    private void showSalesReport(SalesReport report, boolean hourly, String category, SalesFigure item) {
+        SalesFigure sold = report.byStatus.get("Accepted");
+        SalesFigure pending = report.byStatus.get("Pending");
+        SalesFigure removed = report.byStatus.get("Removed");
+        int orders = sold == null ? 0 : sold.getOrders();
+        double revenue = sold == null ? 0 : sold.getRevenue();
+        analyticsRevenueLabel.setText(String.format("$%.2f", revenue));
+        analyticsOrdersLabel.setText(String.valueOf(orders));
+        analyticsAverageLabel.setText(orders == 0 ? "-" : String.format("$%.2f", revenue / orders));
+        analyticsPendingLabel.setText(pending == null ? "0" : pending.getOrders() + String.format(" ($%.2f)", pending.getRevenue()));
+        analyticsRemovedLabel.setText(removed == null ? "0" : removed.getOrders() + String.format(" ($%.2f)", removed.getRevenue()));
+
+        XYChart.Series<String, Number> overTime = new XYChart.Series<>();
+        overTime.setName(item != null ? item.getLabel() : category != null ? category : "All sales");
+        for (SalesFigure figure : report.overTime) {
+            // Hourly labels are 'YYYY-MM-DD HH:00'; the date is the same for all of them.
+            String label = hourly ? figure.getLabel().substring(11) : figure.getLabel().substring(5);
+            overTime.getData().add(new XYChart.Data<>(label, figure.getRevenue()));
+        }
+        salesChart.setTitle((hourly ? "Revenue by hour (UTC)" : "Revenue by day") + " - " + overTime.getName());
+        salesChart.getData().setAll(Collections.singletonList(overTime));
+
+        XYChart.Series<Number, String> top = new XYChart.Series<>();
+        top.setName("Revenue");
+        // The category axis runs bottom to top, so the best seller goes in last.
+        for (int i = report.topItems.size() - 1; i >= 0; i--) {
+            SalesFigure figure = report.topItems.get(i);
+            top.getData().add(new XYChart.Data<>(figure.getRevenue(), figure.getLabel(), figure));
+        }
+        topItemsChart.getData().setAll(Collections.singletonList(top));
+        for (XYChart.Data<Number, String> bar : top.getData()) {
+            // Clicking a bar shows that item's sales over time; clicking it again goes back.
+            bar.getNode().setOnMouseClicked(e -> {
+                SalesFigure picked = (SalesFigure) bar.getExtraValue();
+                analyticsItem = analyticsItem != null && analyticsItem.getId() == picked.getId() ? null : picked;
+                refreshAnalytics();
+            });
+            Tooltip.install(bar.getNode(), new Tooltip(String.format("%s: $%.2f", bar.getYValue(), bar.getXValue().doubleValue())));
+        }
+
+        ObservableList<PieChart.Data> slices = FXCollections.observableArrayList();
+        List<String> categories = new ArrayList<>();
+        categories.add(ALL_CATEGORIES);
+        for (SalesFigure figure : report.categories) {
+            slices.add(new PieChart.Data(figure.getLabel(), figure.getRevenue()));
+            categories.add(figure.getLabel());
+        }
+        categoryChart.setData(slices);
+        if (category != null && !categories.contains(category)) categories.add(category);
+        if (!analyticsCategoryBox.getItems().equals(categories)) {
+            updatingCategories = true;
+            analyticsCategoryBox.getItems().setAll(categories);
+            analyticsCategoryBox.setValue(category != null ? category : ALL_CATEGORIES);
+            updatingCategories = false;
+        }
+
+        analyticsStatusLabel.setText("Updated " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        analyticsStatusLabel.setStyle("-fx-text-fill: gray;");
     }
 
     // --- Helpers ---
@@ -280,6 +975,36 @@ public class AdminDashboard {
         return chooser.showOpenDialog(stage);
     }
     
+    // --- Inner Class for Kitchen Ticket ---
+
+    private static class KitchenTicketCell extends ListCell<KitchenTicket> {
+        private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm");
+
+        @Override
+        protected void updateItem(KitchenTicket ticket, boolean empty) {
+            super.updateItem(ticket, empty);
+            if (empty || ticket == null) {
+                setText(null);
+                setStyle("");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long minutesLeft = Math.floorDiv(ticket.getPromisedAt() - now, 60_000L);
+            StringBuilder text = new StringBuilder("#").append(ticket.getId());
+            if (ticket.getPriority() == KitchenTicket.RUSH) text.append("  RUSH");
+            text.append("  due ").append(LocalDateTime.ofInstant(Instant.ofEpochMilli(ticket.getPromisedAt()), ZoneId.systemDefault()).format(CLOCK));
+            text.append(minutesLeft < 0 ? " (" + -minutesLeft + " min late)" : " (" + minutesLeft + " min left)");
+            if (ticket.getStation() != null) {
+                text.append("\n").append(ticket.getStation()).append(", ")
+                    .append((now - ticket.getClaimedAt()) / 60_000L).append(" min in");
+            }
+            text.append("\n").append(ticket.getCustomer());
+            for (String item : ticket.getItems()) text.append("\n  - ").append(item);
+            setText(text.toString());
+            setStyle(minutesLeft < 0 ? "-fx-text-fill: red;" : ticket.getPriority() == KitchenTicket.RUSH ? "-fx-text-fill: orange;" : "");
+        }
+    }
+
     // --- Inner Class for Order Card ---
     
     private class OrderCardCell extends ListCell<Order> {
@@ -340,11 +1065,20 @@ public class AdminDashboard {
                 removeButton.setOnAction(e -> handleUpdateStatus(order, "Removed"));
                 
                 setGraphic(card);
+
+                if (hasMoreOrders && getIndex() >= orderItems.size() - 5) {
+                    Platform.runLater(AdminDashboard.this::loadMoreOrders);
+                }
             }
         }
         
         private void handleUpdateStatus(Order order, String newStatus) {
-            if (DatabaseHelper.updateOrderStatusByTransaction(order.getTransactionId(), newStatus)) {
+            orderTasks.run(() -> DatabaseHelper.updateOrderStatusByTransaction(order.getTransactionId(), newStatus),
+                    updated -> showStatusResult(order, newStatus, updated));
+        }
+
+        private void showStatusResult(Order order, String newStatus, boolean updated) {
+            if (updated) {
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Order Updated");
                 alert.setHeaderText(null);
@@ -356,8 +1090,9 @@ public class AdminDashboard {
                 userAlert.setHeaderText("Update on your recent order");
                 userAlert.setContentText("Your order (ID: " + order.getTransactionId().substring(0, 8) + "...) has been " + newStatus.toLowerCase() + " by the restaurant.");
                 userAlert.show();
-                
-                refreshOrders();
+
+                // The change shows up through the feed; no need to reload the list.
+                pollOrders();
             } else {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setTitle("Update Failed");
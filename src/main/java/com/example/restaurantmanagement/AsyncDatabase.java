@@ -0,0 +1,60 @@
+package com.example.restaurantmanagement;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs database work off the JavaFX Application Thread and hands the result back to it.
+ *
+ * The workers are ordinary daemon threads rather than virtual threads: the SQLite driver blocks
+ * inside native code, which would pin a virtual thread's carrier anyway, and the connection pool
+ * already bounds how many queries can run at once.
+ */
+public class AsyncDatabase {
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Integer.getInteger("db.pool.size", 4) + 1,
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "db-worker-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /** Runs the work on a database worker thread. */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, EXECUTOR);
+    }
+
+    /**
+     * Runs the work on a database worker thread and passes the result (or the failure, unwrapped
+     * from its CompletionException) to the callback on the FX thread.
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<T> future = supply(work);
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                if (onError != null) onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+    }
+}
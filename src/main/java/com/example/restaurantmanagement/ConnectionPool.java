@@ -0,0 +1,309 @@
+package com.example.restaurantmanagement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps SQLite connections open between calls instead of opening the database file for every query.
+ * Reads borrow from a bounded pool; all writes go through one dedicated writer connection, since
+ * SQLite only ever allows a single writer anyway.
+ *
+ * Connections handed out are proxies: calling close() returns them to the pool, so callers keep
+ * using try-with-resources exactly as they did with DriverManager. A returned proxy refuses every
+ * further call, unwrap included, and its statements hand back the proxy rather than the connection
+ * behind it, so nothing can reach a connection that another borrower holds.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final boolean pooling;
+    private final int maxReaders;
+    private final int minIdle;
+    private final long idleTimeoutMillis;
+    private final long validateAfterMillis;
+    private final long borrowTimeoutMillis;
+
+    private final Deque<Entry> idleReaders = new ArrayDeque<>();
+    private final Semaphore readerPermits;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private Entry writer;
+    private ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, boolean pooling, int maxReaders, int minIdle,
+                          long idleTimeoutMillis, long validateAfterMillis, long borrowTimeoutMillis) {
+        this.url = url;
+        this.pooling = pooling;
+        this.maxReaders = Math.max(1, maxReaders);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxReaders));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateAfterMillis = validateAfterMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.readerPermits = new Semaphore(this.maxReaders, true);
+
+        if (pooling && idleTimeoutMillis > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-pool-evictor");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Builds a pool from system properties so the sizes can be tuned without a rebuild:
+     * db.pool.enabled, db.pool.size, db.pool.minIdle, db.pool.idleTimeoutMs,
+     * db.pool.validateAfterMs and db.pool.borrowTimeoutMs.
+     */
+    public static ConnectionPool fromSystemProperties(String url) {
+        return new ConnectionPool(
+                url,
+                Boolean.parseBoolean(System.getProperty("db.pool.enabled", "true")),
+                Integer.getInteger("db.pool.size", 4),
+                Integer.getInteger("db.pool.minIdle", 1),
+                Long.getLong("db.pool.idleTimeoutMs", 60_000L),
+                Long.getLong("db.pool.validateAfterMs", 5_000L),
+                Long.getLong("db.pool.borrowTimeoutMs", 10_000L)
+        );
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    // --- Borrowing ---
+
+    public Connection read() throws SQLException {
+        if (!pooling) return open(false);
+        ensureOpen();
+        acquire(readerPermits);
+        try {
+            Entry entry;
+            synchronized (idleReaders) {
+                entry = idleReaders.pollFirst();
+            }
+            entry = checkHealth(entry, false);
+            return wrap(entry, false);
+        } catch (SQLException | RuntimeException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    public Connection write() throws SQLException {
+        if (!pooling) return open(true);
+        ensureOpen();
+        try {
+            if (!writerLock.tryLock(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the database writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer connection", e);
+        }
+        try {
+            writer = checkHealth(writer, true);
+            return wrap(writer, true);
+        } catch (SQLException | RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    // --- Returning ---
+
+    private void release(Entry entry, boolean isWriter) {
+        boolean healthy = reset(entry.connection);
+        entry.lastUsed = System.currentTimeMillis();
+        if (isWriter) {
+            if (!healthy) {
+                closeQuietly(entry.connection);
+                writer = null;
+            }
+            writerLock.unlock();
+            return;
+        }
+        if (healthy && !closed) {
+            synchronized (idleReaders) {
+                idleReaders.addFirst(entry);
+            }
+        } else {
+            closeQuietly(entry.connection);
+        }
+        readerPermits.release();
+    }
+
+    private boolean reset(Connection conn) {
+        try {
+            if (conn.isClosed()) return false;
+            if (!conn.getAutoCommit()) {
+                // A caller left a transaction open (usually after an exception); never hand that on.
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // --- Health checks and eviction ---
+
+    private Entry checkHealth(Entry entry, boolean isWriter) throws SQLException {
+        if (entry != null) {
+            long idleFor = System.currentTimeMillis() - entry.lastUsed;
+            if (idleFor < validateAfterMillis || entry.connection.isValid(2)) {
+                return entry;
+            }
+            closeQuietly(entry.connection);
+        }
+        return new Entry(open(isWriter));
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (idleReaders) {
+            // Oldest connections sit at the tail because returns go to the head.
+            Iterator<Entry> it = idleReaders.descendingIterator();
+            while (it.hasNext() && idleReaders.size() > minIdle) {
+                Entry entry = it.next();
+                if (entry.lastUsed < cutoff) {
+                    it.remove();
+                    closeQuietly(entry.connection);
+                }
+            }
+        }
+    }
+
+    // --- Lifecycle ---
+
+    private Connection open(boolean isWriter) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = 5000;");
+            stmt.execute("PRAGMA foreign_keys = ON;");
+            if (isWriter && pooling) {
+                // WAL lets the pooled readers keep reading while the writer commits.
+                stmt.execute("PRAGMA journal_mode = WAL;");
+            }
+        }
+        return conn;
+    }
+
+    private Connection wrap(Entry entry, boolean isWriter) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!returned) {
+                            returned = true;
+                            release(entry, isWriter);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned || entry.connection.isClosed();
+                    // Identity is the proxy's own: the connection behind it outlives it and goes to the next borrower.
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled " + (isWriter ? "writer" : "reader") + " connection to " + url + (returned ? " (returned)" : "");
+                    default:
+                        // Including unwrap: once returned, the raw connection belongs to someone else.
+                        if (returned) throw new SQLException("Connection has already been returned to the pool");
+                        Object result;
+                        try {
+                            result = method.invoke(entry.connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Statement) return wrap((Statement) result, (Connection) proxy, method.getReturnType());
+                        return result;
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    // A statement whose getConnection() gives the pooled proxy, not the connection behind it.
+    private static Statement wrap(Statement statement, Connection owner, Class<?> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("getConnection")) return owner;
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void acquire(Semaphore permits) throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + maxReaders + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) evictor.shutdownNow();
+        synchronized (idleReaders) {
+            for (Entry entry : idleReaders) closeQuietly(entry.connection);
+            idleReaders.clear();
+        }
+        writerLock.lock();
+        try {
+            if (writer != null) closeQuietly(writer.connection);
+            writer = null;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignore) {}
+    }
+
+    private static final class Entry {
+        final Connection connection;
+        long lastUsed;
+
+        Entry(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.restaurantmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills a database with synthetic customers, menu items, orders and ratings for testing at
+ * production scale. Rows are appended to whatever is already there; rating summaries and sales
+ * rollups are recomputed afterwards.
+ *
+ * The data is shaped like a real restaurant's: item popularity and customer activity follow Zipf
+ * distributions (a few favourites, a long tail), orders cluster around lunch and dinner, and
+ * basket sizes vary around a mean. Everything is drawn from one Random, so the same seed and
+ * options (including --end) always produce the same rows.
+ *
+ * Rows go in as multi-row INSERTs inside a handful of large transactions. The order change log's
+ * triggers are dropped for the load and the log filled in one statement at the end; so are the
+ * orders' secondary indexes, rebuilt at the end, unless the database already holds more orders
+ * than the run adds. A million orders take under a minute on a laptop.
+ *
+ * Run with: java -cp ... com.example.restaurantmanagement.DataSeeder [--option=value ...]
+ *   --db=FILE          database file (default: the app's, or -Ddb.url)
+ *   --orders=N         orders to create (default 100000)
+ *   --users=N          customers to create (default orders / 20, at least 100)
+ *   --items=N          menu items to create (default 200)
+ *   --days=N           days of history the orders are spread over (default 365)
+ *   --end=YYYY-MM-DD   the day after the last order (default today, UTC)
+ *   --basket=X         mean number of different items per order (default 2.2)
+ *   --zipf=X           item popularity skew; 0 is uniform (default 1.0)
+ *   --seed=N           random seed (default 42)
+ *   --password=TEXT    login password of every seeded customer (default Customer#123)
+ */
+public class DataSeeder {
+
+    public static final String DEFAULT_PASSWORD = "Customer#123";
+
+    private static final String[] CATEGORIES = {"Starters", "Soups", "Salads", "Mains", "Burgers", "Pizza", "Pasta", "Sides", "Desserts", "Drinks"};
+    private static final double[][] PRICE_RANGES = {{4, 9}, {4, 7}, {6, 11}, {12, 24}, {9, 15}, {10, 18}, {10, 17}, {3, 6}, {5, 9}, {2, 6}};
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int ROWS_PER_STATEMENT = 200;
+    private static final int ORDERS_PER_TRANSACTION = 100_000;
+
+    private int orders = 100_000;
+    private int users = -1;
+    private int menuItems = 200;
+    private int days = 365;
+    private LocalDate end = LocalDate.now(ZoneOffset.UTC);
+    private double meanBasket = 2.2;
+    private double itemSkew = 1.0;
+    private long seed = 42;
+    private String password = DEFAULT_PASSWORD;
+
+    private static volatile String lastError = "";
+
+    public static String getLastError() {
+        return lastError;
+    }
+
+    public DataSeeder orders(int orders) { this.orders = orders; return this; }
+    public DataSeeder users(int users) { this.users = users; return this; }
+    public DataSeeder menuItems(int menuItems) { this.menuItems = menuItems; return this; }
+    public DataSeeder days(int days) { this.days = days; return this; }
+    public DataSeeder end(LocalDate end) { this.end = end; return this; }
+    public DataSeeder meanBasket(double meanBasket) { this.meanBasket = meanBasket; return this; }
+    public DataSeeder itemSkew(double itemSkew) { this.itemSkew = itemSkew; return this; }
+    public DataSeeder seed(long seed) { this.seed = seed; return this; }
+    public DataSeeder password(String password) { this.password = password; return this; }
+
+    public int getUsers() {
+        return users >= 0 ? users : Math.max(100, orders / 20);
+    }
+
+    /**
+     * The email of the n-th seeded customer; customer 0 is the most active one of the first run.
+     * A run on a database that already has seeded customers numbers its own after them.
+     */
+    public static String customerEmail(int n) {
+        return "customer" + n + "@example.com";
+    }
+
+    public static void main(String[] args) {
+        DataSeeder seeder = new DataSeeder();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Expected --option=value, got " + arg);
+                System.exit(2);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(2, eq)) {
+                case "db" -> System.setProperty("db.url", "jdbc:sqlite:" + value);
+                case "orders" -> seeder.orders(Integer.parseInt(value));
+                case "users" -> seeder.users(Integer.parseInt(value));
+                case "items" -> seeder.menuItems(Integer.parseInt(value));
+                case "days" -> seeder.days(Integer.parseInt(value));
+                case "end" -> seeder.end(LocalDate.parse(value));
+                case "basket" -> seeder.meanBasket(Double.parseDouble(value));
+                case "zipf" -> seeder.itemSkew(Double.parseDouble(value));
+                case "seed" -> seeder.seed(Long.parseLong(value));
+                case "password" -> seeder.password(value);
+                default -> {
+                    System.err.println("Unknown option " + arg);
+                    System.exit(2);
+                }
+            }
+        }
+
+        if (!DatabaseHelper.initializeDatabase()) {
+            System.err.println(DatabaseHelper.getLastError());
+            System.exit(1);
+        }
+        System.out.println(seeder);
+        boolean ok = seeder.run();
+        DatabaseHelper.shutdown();
+        if (!ok) {
+            System.err.println(lastError);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Seeds the database DatabaseHelper is using, holding its write connection for the whole run.
+     * Returns false (with lastError set) if anything failed; orders from transactions that had
+     * already committed are kept.
+     */
+    public boolean run() {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseHelper.writeConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                // Only this run's own durability is relaxed; the pooled connection gets it back below.
+                stmt.execute("PRAGMA synchronous = OFF");
+                stmt.execute("PRAGMA cache_size = -262144");
+                // The generated rows only refer to rows generated before them.
+                stmt.execute("PRAGMA foreign_keys = OFF");
+            }
+            conn.setAutoCommit(false);
+            int firstOrderId = nextId(conn, "order_header");
+            // Rebuilding an index costs about as much per row as keeping it up to date does in bulk.
+            boolean rebuildIndexes = orders >= firstOrderId - 1;
+            Map<String, String> deferred = dropIndexesAndTriggers(conn, rebuildIndexes, "order_header", "order_line");
+            try {
+                int[] counts = seed(conn, firstOrderId);
+                restoreIndexesAndTriggers(conn, deferred, firstOrderId);
+                conn.commit();
+                MenuCatalog.get().reload();
+                System.out.printf("Seeded %d customers, %d menu items, %d orders (%d lines) and %d ratings in %.1f s%n",
+                        counts[0], counts[1], counts[2], counts[3], counts[4], (System.nanoTime() - start) / 1e9);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                // Batches committed before the failure are kept, and need their changes logged too.
+                try {
+                    restoreIndexesAndTriggers(conn, deferred, firstOrderId);
+                    conn.commit();
+                } catch (SQLException restoreError) {
+                    e.addSuppressed(restoreError);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA foreign_keys = ON");
+                    stmt.execute("PRAGMA synchronous = FULL");
+                    stmt.execute("PRAGMA cache_size = -2000");
+                    stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                }
+            }
+        } catch (SQLException e) {
+            lastError = "Seed Error: " + e.getMessage();
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /** Returns the number of customers, menu items, orders, order lines and ratings written. */
+    private int[] seed(Connection conn, int firstOrderId) throws SQLException {
+        Random random = new Random(seed);
+        int userCount = getUsers();
+
+        // New rows get ids above everything already there, assigned here so nothing has to be read back.
+        int firstItemId = nextId(conn, "menu_items");
+        int firstCustomer = nextCustomer(conn);
+
+        double[] itemPrices = new double[menuItems];
+        String[] itemNames = new String[menuItems];
+        double[] itemQuality = new double[menuItems];
+        try (BulkInsert items = new BulkInsert(conn, "INSERT", "menu_items", "id", "item_name", "category", "price", "status", "description")) {
+            for (int i = 0; i < menuItems; i++) {
+                int category = i % CATEGORIES.length;
+                double[] range = PRICE_RANGES[category];
+                itemPrices[i] = Math.round((range[0] + random.nextDouble() * (range[1] - range[0])) * 2) / 2.0;
+                itemNames[i] = CATEGORIES[category] + " " + (i / CATEGORIES.length + 1);
+                itemQuality[i] = 2.5 + random.nextDouble() * 2.3;
+                items.add(firstItemId + i, itemNames[i], CATEGORIES[category], itemPrices[i],
+                        random.nextInt(20) == 0 ? "Out of Stock" : "Available", "Seeded item");
+            }
+        }
+
+        // One hash for everyone: hashing each customer separately would dominate the run.
+        String passwordHash = PasswordHasher.get().hash(password);
+        String[] emails = new String[userCount];
+        try (BulkInsert customers = new BulkInsert(conn, "INSERT", "users", "name", "email", "password", "role", "mobile", "address")) {
+            for (int i = 0; i < userCount; i++) {
+                int customer = firstCustomer + i;
+                emails[i] = customerEmail(customer);
+                customers.add("Customer " + customer, emails[i], passwordHash, "User",
+                        String.format("01%08d", customer), (1 + random.nextInt(400)) + " Seed Street");
+            }
+        }
+
+        // Popularity ranks are shuffled so the favourites are spread over the categories.
+        int[] itemByRank = shuffledRange(menuItems, random);
+        double[] itemCdf = zipfCdf(menuItems, itemSkew);
+        double[] customerCdf = zipfCdf(userCount, 0.8);
+        long[] times = orderTimes(random);
+
+        long firstSecondOfLastDay = end.minusDays(1).toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        int lineCount = 0;
+        int ratingCount = 0;
+        int[] basket = new int[12];
+        int[] quantities = new int[basket.length];
+        try (BulkInsert headers = new BulkInsert(conn, "INSERT", "order_header", "id", "transaction_id", "user_email", "status", "total_price", "item_count", "created_at", "updated_at");
+             BulkInsert lines = new BulkInsert(conn, "INSERT", "order_line", "order_id", "menu_item_id", "item_name", "category", "quantity", "line_total").after(headers);
+             BulkInsert ratings = new BulkInsert(conn, "INSERT OR REPLACE", "ratings", "user_email", "menu_item_id", "rating")) {
+            for (int n = 0; n < orders; n++) {
+                int orderId = firstOrderId + n;
+                String email = emails[sample(customerCdf, random)];
+
+                int size = Math.min(Math.min(basket.length, menuItems), 1 + poisson(meanBasket - 1, random));
+                int distinct = 0;
+                double total = 0;
+                int itemCount = 0;
+                while (distinct < size) {
+                    int item = itemByRank[sample(itemCdf, random)];
+                    if (contains(basket, distinct, item)) continue;
+                    int roll = random.nextInt(10);
+                    basket[distinct] = item;
+                    quantities[distinct] = roll < 7 ? 1 : roll < 9 ? 2 : 3;
+                    total += quantities[distinct] * itemPrices[item];
+                    itemCount += quantities[distinct];
+                    distinct++;
+                }
+
+                String status;
+                if (times[n] >= firstSecondOfLastDay) status = random.nextInt(10) < 3 ? "Pending" : "Accepted";
+                else status = random.nextInt(100) < 4 ? "Removed" : "Accepted";
+                String created = format(times[n]);
+                String updated = "Pending".equals(status) ? created : format(times[n] + 60 + random.nextInt(900));
+                headers.add(orderId, "seed-" + seed + "-" + orderId, email, status, Math.round(total * 100) / 100.0, itemCount, created, updated);
+                for (int i = 0; i < distinct; i++) {
+                    int item = basket[i];
+                    lines.add(orderId, firstItemId + item, itemNames[item], CATEGORIES[item % CATEGORIES.length], quantities[i], quantities[i] * itemPrices[item]);
+                }
+                lineCount += distinct;
+
+                // Some customers rate something they had; later ratings replace earlier ones.
+                if ("Accepted".equals(status) && random.nextInt(100) < 12) {
+                    int item = basket[random.nextInt(distinct)];
+                    int rating = (int) Math.round(itemQuality[item] + random.nextGaussian() * 0.8);
+                    ratings.add(email, firstItemId + item, Math.max(1, Math.min(5, rating)));
+                    ratingCount++;
+                }
+
+                if ((n + 1) % ORDERS_PER_TRANSACTION == 0) {
+                    headers.flush();
+                    lines.flush();
+                    ratings.flush();
+                    conn.commit();
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT OR REPLACE INTO rating_summary(menu_item_id, rating_sum, rating_count) " +
+                         "SELECT menu_item_id, SUM(rating), COUNT(*) FROM ratings GROUP BY menu_item_id");
+        }
+        SalesRollups.rebuild(conn);
+        return new int[]{userCount, menuItems, orders, lineCount, ratingCount};
+    }
+
+    /**
+     * Creation times for every order, in ascending order (so ids follow time, as in the app).
+     * Days are equally likely; within a day 40% of orders fall around lunch, 45% around dinner
+     * and the rest anywhere between 10:00 and 22:00.
+     */
+    private long[] orderTimes(Random random) {
+        long firstDay = end.minusDays(days).toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        long[] times = new long[orders];
+        for (int n = 0; n < orders; n++) {
+            double roll = random.nextDouble();
+            double hour;
+            if (roll < 0.40) hour = 12.5 + random.nextGaussian() * 0.75;
+            else if (roll < 0.85) hour = 19.5 + random.nextGaussian();
+            else hour = 10 + random.nextDouble() * 12;
+            hour = Math.max(0, Math.min(23.99, hour));
+            times[n] = firstDay + random.nextInt(days) * 86_400L + (long) (hour * 3600);
+        }
+        Arrays.sort(times);
+        return times;
+    }
+
+    private static int nextId(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = ?), 0), COALESCE((SELECT MAX(id) FROM " + table + "), 0)) + 1")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // The number after the highest seeded customer already there (see customerEmail), or 0.
+    private static int nextCustomer(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(CAST(substr(email, 9, instr(email, '@') - 9) AS INTEGER)) + 1, 0) " +
+                                              "FROM users WHERE email LIKE 'customer%@example.com'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Drops the tables' triggers and, if asked, their own indexes (not those behind UNIQUE and
+     * PRIMARY KEY constraints), and returns their definitions, keyed by type and name, e.g. "INDEX idx_x".
+     */
+    private static Map<String, String> dropIndexesAndTriggers(Connection conn, boolean indexes, String... tables) throws SQLException {
+        Map<String, String> dropped = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT upper(type) || ' ' || name, sql FROM sqlite_master " +
+                "WHERE type IN ('trigger', " + (indexes ? "'index'" : "NULL") + ") AND tbl_name = ? AND sql IS NOT NULL")) {
+            for (String table : tables) {
+                pstmt.setString(1, table);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) dropped.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String object : dropped.keySet()) stmt.execute("DROP " + object);
+        }
+        return dropped;
+    }
+
+    /**
+     * Logs the seeded orders in the order change log, oldest change first as the triggers would
+     * have, and puts the indexes and triggers back (those a rollback has not already).
+     */
+    private static void restoreIndexesAndTriggers(Connection conn, Map<String, String> dropped, int firstOrderId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO order_change(order_id) SELECT id FROM order_header WHERE id >= ? ORDER BY updated_at, id")) {
+            pstmt.setInt(1, firstOrderId);
+            pstmt.executeUpdate();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (Map.Entry<String, String> object : dropped.entrySet()) {
+                stmt.execute("DROP " + object.getKey().replace(" ", " IF EXISTS "));
+                stmt.execute(object.getValue());
+            }
+        }
+    }
+
+    /** Cumulative probabilities of ranks 0..n-1 under a Zipf distribution with the given exponent. */
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static int poisson(double mean, Random random) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static int[] shuffledRange(int n, Random random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) values[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static String format(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC).format(TIMESTAMP);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Seeding with --orders=%d --users=%d --items=%d --days=%d --end=%s --basket=%s --zipf=%s --seed=%d",
+                orders, getUsers(), menuItems, days, end, meanBasket, itemSkew, seed);
+    }
+
+    /**
+     * Buffers rows and writes them ROWS_PER_STATEMENT at a time with one multi-row INSERT, which
+     * is several times faster than a JDBC batch of single-row inserts with the SQLite driver.
+     */
+    private static final class BulkInsert implements AutoCloseable {
+        private final Connection conn;
+        private final String insert;
+        private final int columns;
+        private final List<Object> pending = new ArrayList<>();
+        private PreparedStatement fullStatement;
+        private BulkInsert parent;
+
+        BulkInsert(Connection conn, String verb, String table, String... columns) {
+            this.conn = conn;
+            this.insert = verb + " INTO " + table + "(" + String.join(", ", columns) + ") VALUES ";
+            this.columns = columns.length;
+        }
+
+        /** Rows whose foreign keys point at the parent's rows; the parent is always written first. */
+        BulkInsert after(BulkInsert parent) {
+            this.parent = parent;
+            return this;
+        }
+
+        void add(Object... row) throws SQLException {
+            pending.addAll(Arrays.asList(row));
+            if (pending.size() == ROWS_PER_STATEMENT * columns) flush();
+        }
+
+        void flush() throws SQLException {
+            int rows = pending.size() / columns;
+            if (rows == 0) return;
+            if (parent != null) parent.flush();
+            if (rows == ROWS_PER_STATEMENT) {
+                if (fullStatement == null) fullStatement = conn.prepareStatement(sql(rows));
+                execute(fullStatement);
+            } else {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql(rows))) {
+                    execute(pstmt);
+                }
+            }
+            pending.clear();
+        }
+
+        private void execute(PreparedStatement pstmt) throws SQLException {
+            for (int i = 0; i < pending.size(); i++) {
+                pstmt.setObject(i + 1, pending.get(i));
+            }
+            pstmt.executeUpdate();
+        }
+
+        private String sql(int rows) {
+            String row = "(" + "?, ".repeat(columns - 1) + "?)";
+            StringBuilder sql = new StringBuilder(insert);
+            for (int i = 0; i < rows; i++) {
+                if (i > 0) sql.append(", ");
+                sql.append(row);
+            }
+            return sql.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                if (fullStatement != null) fullStatement.close();
+            }
+        }
+    }
+}
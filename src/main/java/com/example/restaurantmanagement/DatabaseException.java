@@ -0,0 +1,15 @@
+package com.example.restaurantmanagement;
+
+/**
+ * A {@link DatabaseHelper} call failed. Background work throws it (see
+ * {@link DatabaseHelper#failure()}) so the error reaches the screen with the failed call's result,
+ * whatever else has failed since on other threads.
+ */
+public class DatabaseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseException(String message) {
+        super(message);
+    }
+}
@@ -1,265 +1,725 @@
 package com.example.restaurantmanagement;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 public class DatabaseHelper {
-    private static final String DB_URL = "jdbc:sqlite:restaurant_management.db";
-    private static String lastError = "";
+    private static final String DB_URL = System.getProperty("db.url", "jdbc:sqlite:restaurant_management.db");
+    // Per thread: calls run on worker threads, and each must report its own failure, not the latest one.
+    private static final ThreadLocal<String> lastError = ThreadLocal.withInitial(() -> "");
+    private static ConnectionPool pool;
+    private static WriteQueue writeQueue;
+    private static boolean queueWrites = Boolean.parseBoolean(System.getProperty("db.writer.queue", "true"));
 
     static {
         try {
             Class.forName("org.sqlite.JDBC");
         } catch (ClassNotFoundException e) {
             System.err.println("SQLite JDBC Driver not found: " + e.getMessage());
-            lastError = "Driver not found: " + e.getMessage();
+            lastError.set("Driver not found: " + e.getMessage());
         }
     }
 
+    /**
+     * The error of the last call on this thread that failed. Read it on the thread that made the
+     * call, straight after it; to report it from another thread, pass on {@link #failure()}.
+     */
     public static String getLastError() {
-        return lastError;
+        return lastError.get();
     }
 
-    public static boolean initializeDatabase() {
-        System.out.println("Database file location: " + java.nio.file.Paths.get("restaurant_management.db").toAbsolutePath());
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, email TEXT NOT NULL UNIQUE, password TEXT NOT NULL, role TEXT DEFAULT 'User', mobile TEXT, address TEXT);");
-            stmt.execute("CREATE TABLE IF NOT EXISTS menu_items (id INTEGER PRIMARY KEY AUTOINCREMENT, item_name TEXT NOT NULL, category TEXT, price REAL NOT NULL, status TEXT DEFAULT 'Available', description TEXT, image_path TEXT);");
-            stmt.execute("CREATE TABLE IF NOT EXISTS orders (id INTEGER PRIMARY KEY AUTOINCREMENT, transaction_id TEXT NOT NULL, user_email TEXT NOT NULL, item_name TEXT NOT NULL, quantity INTEGER NOT NULL, total_price REAL NOT NULL, order_date TEXT DEFAULT CURRENT_TIMESTAMP, status TEXT DEFAULT 'Pending');");
-            
-            // **FIX**: Ensure ratings table is created
-            stmt.execute("CREATE TABLE IF NOT EXISTS ratings (id INTEGER PRIMARY KEY AUTOINCREMENT, user_email TEXT NOT NULL, item_name TEXT NOT NULL, rating INTEGER NOT NULL, UNIQUE(user_email, item_name));");
+    /** The failure of the last call on this thread, to throw from background work. */
+    public static DatabaseException failure() {
+        return new DatabaseException(lastError.get());
+    }
 
-            // Migrations
-            try { stmt.execute("ALTER TABLE users ADD COLUMN role TEXT DEFAULT 'User';"); } catch (SQLException ignore) {}
-            try { stmt.execute("ALTER TABLE users ADD COLUMN mobile TEXT;"); } catch (SQLException ignore) {}
-            try { stmt.execute("ALTER TABLE users ADD COLUMN address TEXT;"); } catch (SQLException ignore) {}
-            try { stmt.execute("ALTER TABLE orders ADD COLUMN transaction_id TEXT;"); } catch (SQLException ignore) {}
-            try { stmt.execute("ALTER TABLE orders ADD COLUMN status TEXT DEFAULT 'Pending';"); } catch (SQLException ignore) {}
+    // --- Metrics ---
 
-            System.out.println("Database initialized.");
-            return true;
-        } catch (SQLException e) {
-            lastError = "Init Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
+    // Failures recorded on each thread, so timed() can tell whether the operation it wraps failed.
+    private static final ThreadLocal<int[]> failures = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static void fail(String message) {
+        lastError.set(message);
+        failures.get()[0]++;
+    }
+
+    /** Runs an operation and records its latency, and whether it failed, under the given name. */
+    private static <T> T timed(String operation, Supplier<T> body) {
+        int[] failed = failures.get();
+        int failuresBefore = failed[0];
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            T result = body.get();
+            ok = failed[0] == failuresBefore;
+            return result;
+        } finally {
+            Metrics.record(operation, start, !ok);
         }
     }
 
-    // --- Rating Methods ---
+    // --- Connection Management ---
 
-    public static boolean addRating(String userEmail, String itemName, int rating) {
-        String sql = "INSERT OR REPLACE INTO ratings(user_email, item_name, rating) VALUES(?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userEmail);
-            pstmt.setString(2, itemName);
-            pstmt.setInt(3, rating);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Add Rating Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) pool = ConnectionPool.fromSystemProperties(DB_URL);
+        return pool;
+    }
+
+    static Connection readConnection() throws SQLException {
+        return pool().read();
+    }
+
+    static Connection writeConnection() throws SQLException {
+        return pool().write();
+    }
+
+    /** Swaps the pool in use (the benchmark uses this to compare pooled and per-call connections). */
+    static synchronized void usePool(ConnectionPool newPool) {
+        if (pool != null) pool.close();
+        pool = newPool;
+    }
+
+    /**
+     * Turns the single-writer queue on or off. With it off, each write runs in its own transaction
+     * on the calling thread (the benchmark uses this to compare the two).
+     */
+    static void useWriteQueue(boolean enabled) {
+        WriteQueue old;
+        synchronized (DatabaseHelper.class) {
+            queueWrites = enabled;
+            old = enabled ? null : writeQueue;
+            if (!enabled) writeQueue = null;
         }
+        // Closed outside the lock: the writer thread needs it to borrow the write connection.
+        if (old != null) old.close();
     }
 
-    public static double getAverageRating(String itemName) {
-        String sql = "SELECT AVG(rating) FROM ratings WHERE item_name = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, itemName);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getDouble(1);
-            }
+    /** The queue all writes go through, or null if writes run directly on the caller's thread. */
+    static synchronized WriteQueue writeQueue() {
+        if (queueWrites && writeQueue == null) writeQueue = WriteQueue.fromSystemProperties(DatabaseHelper::writeConnection);
+        return queueWrites ? writeQueue : null;
+    }
+
+    /**
+     * Runs a write on the writer thread and waits until the group it was committed with is on
+     * disk. On failure the error is recorded for this thread and failed is returned.
+     */
+    private static <T> T write(String errorPrefix, WriteQueue.Command<T> command, T failed) {
+        WriteQueue queue = writeQueue();
+        try {
+            if (queue == null) return WriteQueue.runDirect(DatabaseHelper::writeConnection, command);
+            return queue.submit(command).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            fail(errorPrefix + cause.getMessage());
+            cause.printStackTrace();
+            return failed;
         } catch (SQLException e) {
+            fail(errorPrefix + e.getMessage());
             e.printStackTrace();
+            return failed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(errorPrefix + "Interrupted while waiting for the write to commit.");
+            return failed;
         }
-        return 0.0;
     }
 
-    public static boolean hasUserOrderedItem(String userEmail, String itemName) {
-        // Only allow rating if the order status is 'Accepted'
-        String sql = "SELECT COUNT(*) FROM orders WHERE user_email = ? AND item_name = ? AND status = 'Accepted'";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userEmail);
-            pstmt.setString(2, itemName);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    public static void shutdown() {
+        WriteQueue queue;
+        synchronized (DatabaseHelper.class) {
+            queue = writeQueue;
+            writeQueue = null;
+        }
+        // Let queued writes commit before the connections go away.
+        if (queue != null) queue.close();
+        synchronized (DatabaseHelper.class) {
+            if (pool != null) pool.close();
+            pool = null;
         }
-        return false;
+    }
+
+    public static boolean initializeDatabase() {
+        return timed("db.initializeDatabase", () -> {
+            System.out.println("Database file location: " + java.nio.file.Paths.get(DB_URL.substring("jdbc:sqlite:".length())).toAbsolutePath());
+        
+            try (Connection conn = writeConnection()) {
+                SchemaMigrations.migrate(conn);
+                System.out.println("Database initialized.");
+                return true;
+            } catch (SQLException e) {
+                fail("Init Error: " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            }
+        });
+    }
+
+    // --- Rating Methods ---
+
+    /**
+     * Saves (or changes) a user's rating and updates the item's rating_summary row in the same
+     * transaction, so averages never need to scan the ratings table.
+     */
+    public static boolean addRating(String userEmail, int menuItemId, int rating) {
+        return timed("db.addRating", () -> {
+            String previousSql = "SELECT rating FROM ratings WHERE user_email = ? AND menu_item_id = ?";
+            String ratingSql = "INSERT INTO ratings(user_email, menu_item_id, rating) VALUES(?, ?, ?) " +
+                               "ON CONFLICT(user_email, menu_item_id) DO UPDATE SET rating = excluded.rating";
+            String summarySql = "INSERT INTO rating_summary(menu_item_id, rating_sum, rating_count) VALUES(?, ?, ?) " +
+                                "ON CONFLICT(menu_item_id) DO UPDATE SET rating_sum = rating_sum + excluded.rating_sum, " +
+                                "rating_count = rating_count + excluded.rating_count";
+            return write("Add Rating Error: ", conn -> {
+                try (PreparedStatement previousStmt = conn.prepareStatement(previousSql);
+                     PreparedStatement ratingStmt = conn.prepareStatement(ratingSql);
+                     PreparedStatement summaryStmt = conn.prepareStatement(summarySql)) {
+                    previousStmt.setString(1, userEmail);
+                    previousStmt.setInt(2, menuItemId);
+                    Integer previous = null;
+                    try (ResultSet rs = previousStmt.executeQuery()) {
+                        if (rs.next()) previous = rs.getInt(1);
+                    }
+
+                    ratingStmt.setString(1, userEmail);
+                    ratingStmt.setInt(2, menuItemId);
+                    ratingStmt.setInt(3, rating);
+                    ratingStmt.executeUpdate();
+
+                    summaryStmt.setInt(1, menuItemId);
+                    summaryStmt.setInt(2, previous == null ? rating : rating - previous);
+                    summaryStmt.setInt(3, previous == null ? 1 : 0);
+                    summaryStmt.executeUpdate();
+                    return true;
+                }
+            }, false);
+        });
+    }
+
+    public static double getAverageRating(int menuItemId) {
+        return timed("db.getAverageRating", () -> {
+            String sql = "SELECT CAST(rating_sum AS REAL) / rating_count FROM rating_summary WHERE menu_item_id = ? AND rating_count > 0";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, menuItemId);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            } catch (SQLException e) {
+                fail("Get Rating Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return 0.0;
+        });
+    }
+
+    /** Average rating of every rated menu item, keyed by menu item id, in one query. */
+    public static Map<Integer, Double> getAllAverageRatings() {
+        return timed("db.getAllAverageRatings", () -> {
+            Map<Integer, Double> averages = new HashMap<>();
+            String sql = "SELECT menu_item_id, CAST(rating_sum AS REAL) / rating_count FROM rating_summary WHERE rating_count > 0";
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    averages.put(rs.getInt(1), rs.getDouble(2));
+                }
+            } catch (SQLException e) {
+                fail("Get Ratings Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return averages;
+        });
+    }
+
+    public static boolean hasUserOrderedItem(String userEmail, int menuItemId) {
+        return timed("db.hasUserOrderedItem", () -> {
+            // Only allow rating if the order status is 'Accepted'
+            String sql = "SELECT COUNT(*) FROM order_header h JOIN order_line l ON l.order_id = h.id " +
+                         "WHERE h.user_email = ? AND l.menu_item_id = ? AND h.status = 'Accepted'";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, userEmail);
+                pstmt.setInt(2, menuItemId);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+            } catch (SQLException e) {
+                fail("Check Order Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return false;
+        });
     }
     
-    public static int getUserRating(String userEmail, String itemName) {
-        String sql = "SELECT rating FROM ratings WHERE user_email = ? AND item_name = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userEmail);
-            pstmt.setString(2, itemName);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
+    public static int getUserRating(String userEmail, int menuItemId) {
+        return timed("db.getUserRating", () -> {
+            String sql = "SELECT rating FROM ratings WHERE user_email = ? AND menu_item_id = ?";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, userEmail);
+                pstmt.setInt(2, menuItemId);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            } catch (SQLException e) {
+                fail("Get Rating Error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0; // 0 means not rated yet
+            return 0; // 0 means not rated yet
+        });
+    }
+
+    /** Every rating the user has given, keyed by menu item id. */
+    public static Map<Integer, Integer> getUserRatings(String userEmail) {
+        return timed("db.getUserRatings", () -> {
+            Map<Integer, Integer> ratings = new HashMap<>();
+            String sql = "SELECT menu_item_id, rating FROM ratings WHERE user_email = ?";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, userEmail);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ratings.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            } catch (SQLException e) {
+                fail("Get User Ratings Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return ratings;
+        });
+    }
+
+    /** Menu items the user may rate: everything on one of their accepted orders. */
+    public static Set<Integer> getRateableItemIds(String userEmail) {
+        return timed("db.getRateableItemIds", () -> {
+            Set<Integer> ids = new HashSet<>();
+            String sql = "SELECT DISTINCT l.menu_item_id FROM order_header h JOIN order_line l ON l.order_id = h.id " +
+                         "WHERE h.user_email = ? AND h.status = 'Accepted' AND l.menu_item_id IS NOT NULL";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, userEmail);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            } catch (SQLException e) {
+                fail("Get Rateable Items Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return ids;
+        });
     }
 
     // --- Existing Methods ---
 
     public static boolean placeOrder(String transactionId, String userEmail, String itemName, int quantity, double totalPrice) {
-        String sql = "INSERT INTO orders(transaction_id, user_email, item_name, quantity, total_price, status) VALUES(?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, transactionId);
-            pstmt.setString(2, userEmail);
-            pstmt.setString(3, itemName);
-            pstmt.setInt(4, quantity);
-            pstmt.setDouble(5, totalPrice);
-            pstmt.setString(6, "Pending");
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
+        return timed("db.placeOrder", () -> {
+            List<OrderLine> lines = new ArrayList<>();
+            lines.add(new OrderLine(0, itemName, quantity, totalPrice));
+            if (writeOrder(transactionId, userEmail, lines)) {
                 System.out.println("Successfully placed order for item: " + itemName);
                 return true;
-            } else {
-                lastError = "Place Order Error: The order could not be saved to the database (0 rows affected).";
-                System.err.println(lastError);
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Places every line of a cart under one transaction id in a single database transaction.
+     * Either all lines are saved or none are, so a failure can never leave a partial order behind.
+     */
+    public static boolean placeOrderBatch(String transactionId, String userEmail, List<CartItem> items) {
+        return timed("db.placeOrderBatch", () -> {
+            if (items == null || items.isEmpty()) {
+                fail("Place Order Error: The cart is empty.");
                 return false;
             }
-        } catch (SQLException e) {
-            lastError = "Place Order SQL Error: " + e.getMessage();
-            System.err.println(lastError);
-            e.printStackTrace();
+            List<OrderLine> lines = new ArrayList<>();
+            for (CartItem ci : items) {
+                lines.add(OrderLine.fromCartItem(ci));
+            }
+            if (writeOrder(transactionId, userEmail, lines)) {
+                System.out.println("Successfully placed order " + transactionId + " with " + items.size() + " item(s)");
+                return true;
+            }
             return false;
+        });
+    }
+
+    private static boolean writeOrder(String transactionId, String userEmail, List<OrderLine> lines) {
+        // Calling again with the same transaction id adds lines to the existing order.
+        String headerSql = "INSERT INTO order_header(transaction_id, user_email, status, total_price, item_count) VALUES(?, ?, 'Pending', ?, ?) " +
+                           "ON CONFLICT(transaction_id) DO UPDATE SET total_price = total_price + excluded.total_price, " +
+                           "item_count = item_count + excluded.item_count, updated_at = CURRENT_TIMESTAMP";
+        String idSql = "SELECT id, status FROM order_header WHERE transaction_id = ?";
+        String lastLineSql = "SELECT COALESCE(MAX(id), 0) FROM order_line";
+        String lineSql = "INSERT INTO order_line(order_id, menu_item_id, item_name, quantity, line_total) " +
+                         "VALUES(?, COALESCE(?, (SELECT id FROM menu_items WHERE item_name = ? ORDER BY id LIMIT 1)), ?, ?, ?)";
+        String categorySql = "UPDATE order_line SET category = (SELECT m.category FROM menu_items m WHERE m.id = order_line.menu_item_id) " +
+                             "WHERE order_id = ? AND id > ?";
+
+        double total = 0;
+        int itemCount = 0;
+        for (OrderLine line : lines) {
+            total += line.getLineTotal();
+            itemCount += line.getQuantity();
+        }
+
+        final double orderTotal = total;
+        final int orderItemCount = itemCount;
+        return write("Place Order SQL Error: ", conn -> {
+            try (PreparedStatement headerStmt = conn.prepareStatement(headerSql);
+                 PreparedStatement idStmt = conn.prepareStatement(idSql);
+                 PreparedStatement lastLineStmt = conn.prepareStatement(lastLineSql);
+                 PreparedStatement lineStmt = conn.prepareStatement(lineSql);
+                 PreparedStatement categoryStmt = conn.prepareStatement(categorySql)) {
+                idStmt.setString(1, transactionId);
+                boolean newOrder;
+                try (ResultSet rs = idStmt.executeQuery()) {
+                    newOrder = !rs.next();
+                }
+
+                headerStmt.setString(1, transactionId);
+                headerStmt.setString(2, userEmail);
+                headerStmt.setDouble(3, orderTotal);
+                headerStmt.setInt(4, orderItemCount);
+                headerStmt.executeUpdate();
+
+                long orderId;
+                String status;
+                try (ResultSet rs = idStmt.executeQuery()) {
+                    rs.next();
+                    orderId = rs.getLong(1);
+                    status = rs.getString(2);
+                }
+                long lastLineId;
+                try (ResultSet rs = lastLineStmt.executeQuery()) {
+                    rs.next();
+                    lastLineId = rs.getLong(1);
+                }
+
+                for (OrderLine line : lines) {
+                    lineStmt.setLong(1, orderId);
+                    if (line.getMenuItemId() > 0) lineStmt.setInt(2, line.getMenuItemId());
+                    else lineStmt.setNull(2, java.sql.Types.INTEGER);
+                    lineStmt.setString(3, line.getItemName());
+                    lineStmt.setString(4, line.getItemName());
+                    lineStmt.setInt(5, line.getQuantity());
+                    lineStmt.setDouble(6, line.getLineTotal());
+                    lineStmt.addBatch();
+                }
+                int[] counts = lineStmt.executeBatch();
+                for (int count : counts) {
+                    // Throwing rolls back the whole order, header included.
+                    if (count == 0) throw new SQLException("An order line could not be saved (0 rows affected).");
+                }
+
+                categoryStmt.setLong(1, orderId);
+                categoryStmt.setLong(2, lastLineId);
+                categoryStmt.executeUpdate();
+                SalesRollups.addLines(conn, orderId, lastLineId, status, newOrder);
+                return true;
+            }
+        }, false);
+    }
+
+    private static final String GROUPED_ORDER_COLUMNS =
+            "h.id, h.transaction_id, h.user_email, h.total_price, h.item_count, h.created_at, h.status, " +
+            "u.name, u.mobile, u.address, " +
+            "(SELECT group_concat(l.item_name || ' x' || l.quantity, char(10)) FROM order_line l WHERE l.order_id = h.id) AS items ";
+
+    private static final String GROUPED_ORDER_SELECT =
+            "SELECT " + GROUPED_ORDER_COLUMNS + "FROM order_header h JOIN users u ON h.user_email = u.email ";
+
+    /**
+     * One page of orders, newest first, one Order per transaction with its lines joined into the
+     * item name (one per line). Paging is keyset-based on (created_at, id): pass the date and id of
+     * the last order already shown, or null/0 for the first page, so every page costs the same no
+     * matter how deep the admin has scrolled. A null status means all statuses.
+     */
+    public static List<Order> getOrdersPage(String status, String afterDate, int afterId, int limit) {
+        return timed("db.getOrdersPage", () -> {
+            List<Order> orders = new ArrayList<>();
+            StringBuilder sql = new StringBuilder(GROUPED_ORDER_SELECT).append("WHERE 1 = 1 ");
+            if (status != null) sql.append("AND h.status = ? ");
+            if (afterDate != null) sql.append("AND h.created_at <= ? AND (h.created_at < ? OR h.id < ?) ");
+            sql.append("ORDER BY h.created_at DESC, h.id DESC LIMIT ?");
+
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int idx = 1;
+                if (status != null) pstmt.setString(idx++, status);
+                if (afterDate != null) {
+                    pstmt.setString(idx++, afterDate);
+                    pstmt.setString(idx++, afterDate);
+                    pstmt.setInt(idx++, afterId);
+                }
+                pstmt.setInt(idx, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        orders.add(readGroupedOrder(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                fail("Get Orders Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return orders;
+        });
+    }
+
+    /** The newest position in the order change log; orders changed later have a higher seq. */
+    public static long getLatestOrderChange() {
+        return timed("db.getLatestOrderChange", () -> {
+            String sql = "SELECT COALESCE(MAX(seq), 0) FROM order_change";
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            } catch (SQLException e) {
+                fail("Get Order Changes Error: " + e.getMessage());
+                e.printStackTrace();
+                return 0L;
+            }
+        });
+    }
+
+    /**
+     * Orders placed or changed after the given change-log position, oldest change first, in the
+     * same shape as {@link #getOrdersPage}. Each order carries its own change seq; the last one is
+     * the position to pass next time. Returns an empty list if nothing changed.
+     */
+    public static List<Order> getOrderChanges(long afterSeq, int limit) {
+        return timed("db.getOrderChanges", () -> {
+            List<Order> orders = new ArrayList<>();
+            String sql = "SELECT c.seq AS change_seq, " + GROUPED_ORDER_COLUMNS +
+                         "FROM order_change c JOIN order_header h ON h.id = c.order_id JOIN users u ON h.user_email = u.email " +
+                         "WHERE c.seq > ? ORDER BY c.seq LIMIT ?";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, afterSeq);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Order order = readGroupedOrder(rs);
+                        order.setChangeSeq(rs.getLong("change_seq"));
+                        orders.add(order);
+                    }
+                }
+            } catch (SQLException e) {
+                fail("Get Order Changes Error: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return orders;
+        });
+    }
+
+    // --- Kitchen Feed ---
+
+    private static final String KITCHEN_ORDER_COLUMNS =
+            "h.id, h.transaction_id, h.user_email, h.status, CAST(strftime('%s', h.updated_at) AS INTEGER) * 1000 AS changed_at, " +
+            "l.id AS line_id, l.menu_item_id, l.item_name, l.quantity, l.line_total ";
+
+    /** Every Pending order with its lines, oldest first: what the kitchen board starts from. */
+    public static List<KitchenOrder> getPendingKitchenOrders() {
+        return timed("db.getPendingKitchenOrders", () -> {
+            String sql = "SELECT 0 AS change_seq, " + KITCHEN_ORDER_COLUMNS +
+                         "FROM order_header h JOIN order_line l ON l.order_id = h.id " +
+                         "WHERE h.status = 'Pending' ORDER BY h.created_at, h.id, l.id";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                return readKitchenOrders(pstmt);
+            } catch (SQLException e) {
+                fail("Get Kitchen Orders Error: " + e.getMessage());
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+        });
+    }
+
+    /**
+     * Orders placed or changed after the given change-log position, oldest change first, for the
+     * kitchen: Pending orders come with all their lines, others with none. The last one's change
+     * seq is the position to pass next time.
+     */
+    public static List<KitchenOrder> getKitchenOrderChanges(long afterSeq, int limit) {
+        return timed("db.getKitchenOrderChanges", () -> {
+            String sql = "SELECT c.seq AS change_seq, " + KITCHEN_ORDER_COLUMNS +
+                         "FROM (SELECT seq, order_id FROM order_change WHERE seq > ? ORDER BY seq LIMIT ?) c " +
+                         "JOIN order_header h ON h.id = c.order_id " +
+                         "LEFT JOIN order_line l ON l.order_id = h.id AND h.status = 'Pending' ORDER BY c.seq, l.id";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, afterSeq);
+                pstmt.setInt(2, limit);
+                return readKitchenOrders(pstmt);
+            } catch (SQLException e) {
+                fail("Get Kitchen Orders Error: " + e.getMessage());
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+        });
+    }
+
+    // Groups rows of KITCHEN_ORDER_COLUMNS, one per line (or one with a null line), into orders.
+    private static List<KitchenOrder> readKitchenOrders(PreparedStatement pstmt) throws SQLException {
+        List<KitchenOrder> orders = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            boolean more = rs.next();
+            while (more) {
+                long changeSeq = rs.getLong("change_seq");
+                long orderId = rs.getLong("id");
+                String transactionId = rs.getString("transaction_id");
+                String customer = rs.getString("user_email");
+                String status = rs.getString("status");
+                long changedAt = rs.getLong("changed_at");
+                List<OrderLine> lines = new ArrayList<>();
+                do {
+                    long lineId = rs.getLong("line_id");
+                    if (lineId > 0) {
+                        lines.add(new OrderLine(lineId, rs.getInt("menu_item_id"), rs.getString("item_name"),
+                                rs.getInt("quantity"), rs.getDouble("line_total")));
+                    }
+                    more = rs.next();
+                } while (more && rs.getLong("change_seq") == changeSeq && rs.getLong("id") == orderId);
+                orders.add(new KitchenOrder(changeSeq, orderId, transactionId, customer, status, changedAt, lines));
+            }
         }
+        return orders;
     }
 
+    private static Order readGroupedOrder(ResultSet rs) throws SQLException {
+        Order order = new Order(
+            rs.getInt("id"),
+            rs.getString("user_email"),
+            rs.getString("items"),
+            rs.getInt("item_count"),
+            rs.getDouble("total_price"),
+            rs.getString("created_at"),
+            rs.getString("status"),
+            rs.getString("name"),
+            rs.getString("mobile"),
+            rs.getString("address")
+        );
+        order.setTransactionId(rs.getString("transaction_id"));
+        return order;
+    }
+
+    /** Every order line as an Order, newest first, all in memory. For files, use {@link #exportOrderLines}. */
     public static List<Order> getAllOrdersWithDetails() {
-        List<Order> orders = new ArrayList<>();
-        String sql = "SELECT o.id, o.transaction_id, o.user_email, o.item_name, o.quantity, o.total_price, o.order_date, o.status, " +
-                     "u.name, u.mobile, u.address " +
-                     "FROM orders o JOIN users u ON o.user_email = u.email " +
-                     "ORDER BY o.order_date DESC";
+        return timed("db.getAllOrdersWithDetails", () -> {
+            List<Order> orders = new ArrayList<>();
+            String sql = "SELECT l.id, h.transaction_id, h.user_email, l.item_name, l.quantity, l.line_total, h.created_at, h.status, " +
+                         "u.name, u.mobile, u.address " +
+                         "FROM order_line l JOIN order_header h ON h.id = l.order_id JOIN users u ON h.user_email = u.email " +
+                         "ORDER BY h.created_at DESC";
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                Order order = new Order(
-                    rs.getInt("id"),
-                    rs.getString("user_email"),
-                    rs.getString("item_name"),
-                    rs.getInt("quantity"),
-                    rs.getDouble("total_price"),
-                    rs.getString("order_date"),
-                    rs.getString("status"),
-                    rs.getString("name"),
-                    rs.getString("mobile"),
-                    rs.getString("address")
-                );
-                order.setTransactionId(rs.getString("transaction_id"));
-                orders.add(order);
+                while (rs.next()) {
+                    Order order = new Order(
+                        rs.getInt("id"),
+                        rs.getString("user_email"),
+                        rs.getString("item_name"),
+                        rs.getInt("quantity"),
+                        rs.getDouble("line_total"),
+                        rs.getString("created_at"),
+                        rs.getString("status"),
+                        rs.getString("name"),
+                        rs.getString("mobile"),
+                        rs.getString("address")
+                    );
+                    order.setTransactionId(rs.getString("transaction_id"));
+                    orders.add(order);
+                }
+            } catch (SQLException e) {
+                fail("Get All Orders Error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            lastError = "Get All Orders Error: " + e.getMessage();
-            e.printStackTrace();
-        }
-        return orders;
+            return orders;
+        });
     }
 
     public static boolean updateOrderStatusByTransaction(String transactionId, String status) {
-        String sql = "UPDATE orders SET status = ? WHERE transaction_id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, status);
-            pstmt.setString(2, transactionId);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Update Order Status Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        return timed("db.updateOrderStatusByTransaction", () ->
+                write("Update Order Status Error: ", conn -> setOrderStatus(conn, "transaction_id", transactionId, status), false));
     }
     
     public static boolean updateOrderStatus(int orderId, String status) {
-        String sql = "UPDATE orders SET status = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, status);
-            pstmt.setInt(2, orderId);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Update Order Status Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        return timed("db.updateOrderStatus", () ->
+                write("Update Order Status Error: ", conn -> setOrderStatus(conn, "id", orderId, status), false));
     }
 
-    private static String hashPassword(String password) {
-        if (password == null) return null;
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashed = md.digest(password.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashed) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            lastError = "Hash Error: " + e.getMessage();
-            e.printStackTrace();
-            return null;
+    /** Changes the status of the order whose keyColumn matches, moving its sales in the rollups with it. */
+    private static boolean setOrderStatus(Connection conn, String keyColumn, Object key, String status) throws SQLException {
+        String selectSql = "SELECT id, status FROM order_header WHERE " + keyColumn + " = ?";
+        String updateSql = "UPDATE order_header SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+        try (PreparedStatement selectStmt = conn.prepareStatement(selectSql);
+             PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+            selectStmt.setObject(1, key);
+            long orderId;
+            String previous;
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                if (!rs.next()) return true;
+                orderId = rs.getLong(1);
+                previous = rs.getString(2);
+            }
+            updateStmt.setString(1, status);
+            updateStmt.setLong(2, orderId);
+            updateStmt.executeUpdate();
+            SalesRollups.changeStatus(conn, orderId, previous, status);
+            return true;
         }
     }
 
     public static boolean registerUser(String name, String email, String password, String mobile, String address) {
-        String sql = "INSERT INTO users(name, email, password, role, mobile, address) VALUES(?, ?, ?, ?, ?, ?)";
-        String hashed = hashPassword(password);
-        if (hashed == null) return false;
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, name);
-            pstmt.setString(2, email);
-            pstmt.setString(3, hashed);
-            pstmt.setString(4, "User");
-            pstmt.setString(5, mobile);
-            pstmt.setString(6, address);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Register Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        return timed("db.registerUser", () -> {
+            String sql = "INSERT INTO users(name, email, password, role, mobile, address) VALUES(?, ?, ?, ?, ?, ?)";
+            String hashed;
+            try {
+                hashed = PasswordHasher.get().hash(password);
+            } catch (RejectedExecutionException e) {
+                fail("Register Error: Too many requests at once, please try again.");
+                return false;
+            }
+            return write("Register Error: ", conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, name);
+                    pstmt.setString(2, email);
+                    pstmt.setString(3, hashed);
+                    pstmt.setString(4, "User");
+                    pstmt.setString(5, mobile);
+                    pstmt.setString(6, address);
+                    pstmt.executeUpdate();
+                    return true;
+                }
+            }, false);
+        });
     }
     
     public static boolean registerUser(String name, String email, String password) {
@@ -267,206 +727,715 @@ public class DatabaseHelper {
     }
 
     public static boolean updateUserProfile(int id, String name, String mobile, String address) {
-        String sql = "UPDATE users SET name = ?, mobile = ?, address = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, name);
-            pstmt.setString(2, mobile);
-            pstmt.setString(3, address);
-            pstmt.setInt(4, id);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Update Profile Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        return timed("db.updateUserProfile", () -> {
+            String sql = "UPDATE users SET name = ?, mobile = ?, address = ? WHERE id = ?";
+            return write("Update Profile Error: ", conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, name);
+                    pstmt.setString(2, mobile);
+                    pstmt.setString(3, address);
+                    pstmt.setInt(4, id);
+                    pstmt.executeUpdate();
+                    return true;
+                }
+            }, false);
+        });
     }
 
     public static boolean validateUser(String email, String password) {
-        String selectSql = "SELECT password FROM users WHERE email = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (!rs.next()) return false;
-            String stored = rs.getString("password");
-            String hashedProvided = hashPassword(password);
-            if (hashedProvided == null) return false;
-            if (stored.equals(hashedProvided)) return true;
-            if (stored.equals(password)) {
-                String updateSql = "UPDATE users SET password = ? WHERE email = ?";
-                try (PreparedStatement updatePstmt = conn.prepareStatement(updateSql)) {
-                    updatePstmt.setString(1, hashedProvided);
-                    updatePstmt.setString(2, email);
-                    updatePstmt.executeUpdate();
-                } catch (SQLException ignore) {}
-                return true;
+        return timed("db.validateUser", () -> {
+            String selectSql = "SELECT password FROM users WHERE email = ?";
+            String stored;
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+                pstmt.setString(1, email);
+                ResultSet rs = pstmt.executeQuery();
+                stored = rs.next() ? rs.getString("password") : null;
+            } catch (SQLException e) {
+                fail("Login Error: " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            }
+
+            // The connection is back in the pool before the (deliberately slow) hash starts.
+            PasswordHasher.Result result;
+            try {
+                result = PasswordHasher.get().verify(password, stored);
+            } catch (RejectedExecutionException e) {
+                fail("Login Error: Too many logins at once, please try again.");
+                return false;
+            }
+            if (result == PasswordHasher.Result.MATCH_NEEDS_REHASH) {
+                // Store the password the current way; the login does not wait for it.
+                try {
+                    PasswordHasher.get().hashAsync(password)
+                            .thenAccept(hashed -> writeInBackground(replacePassword(email, stored, hashed)));
+                } catch (RejectedExecutionException e) {
+                    // The hashing pool is busy; it is tried again at the next login.
+                }
+            }
+            return result != PasswordHasher.Result.NO_MATCH;
+        });
+    }
+
+    /**
+     * Salts every password still stored in a legacy form (plain text or unsalted SHA-256), in
+     * batches. Passwords are hashed one at a time, so logins keep the rest of the hashing pool.
+     * Meant to run on a background thread after startup; returns how many rows were migrated.
+     */
+    public static int migrateLegacyPasswords() {
+        return timed("db.migrateLegacyPasswords", () -> {
+            String sql = "SELECT id, email, password FROM users WHERE id > ? AND password NOT LIKE 'pbkdf2%' ORDER BY id LIMIT 100";
+            int migrated = 0;
+            int afterId = 0;
+            while (true) {
+                Map<String, String> batch = new LinkedHashMap<>();
+                try (Connection conn = readConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, afterId);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        afterId = rs.getInt("id");
+                        batch.put(rs.getString("email"), rs.getString("password"));
+                    }
+                } catch (SQLException e) {
+                    fail("Password Migration Error: " + e.getMessage());
+                    e.printStackTrace();
+                    return migrated;
+                }
+                if (batch.isEmpty()) return migrated;
+
+                for (Map.Entry<String, String> row : batch.entrySet()) {
+                    String upgraded;
+                    try {
+                        upgraded = PasswordHasher.get().upgradeLegacy(row.getValue());
+                    } catch (RejectedExecutionException e) {
+                        fail("Password Migration Error: The hashing pool is busy.");
+                        return migrated;
+                    }
+                    if (upgraded != null && write("Password Migration Error: ", replacePassword(row.getKey(), row.getValue(), upgraded), false)) {
+                        migrated++;
+                    }
+                }
+            }
+        });
+    }
+
+    /** Swaps a stored password, unless it has changed since it was read. */
+    private static WriteQueue.Command<Boolean> replacePassword(String email, String oldValue, String newValue) {
+        String sql = "UPDATE users SET password = ? WHERE email = ? AND password = ?";
+        return conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, newValue);
+                pstmt.setString(2, email);
+                pstmt.setString(3, oldValue);
+                return pstmt.executeUpdate() == 1;
+            }
+        };
+    }
+
+    /** Queues a write nobody waits for. */
+    private static void writeInBackground(WriteQueue.Command<Boolean> command) {
+        WriteQueue queue = writeQueue();
+        if (queue != null) {
+            queue.submit(command);
+        } else {
+            try {
+                WriteQueue.runDirect(DatabaseHelper::writeConnection, command);
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-            return false;
-        } catch (SQLException e) {
-            lastError = "Login Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
         }
     }
 
     public static List<User> getAllUsers() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT id, name, email, mobile, address FROM users";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                users.add(new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"), rs.getString("mobile"), rs.getString("address")));
+        return timed("db.getAllUsers", () -> {
+            List<User> users = new ArrayList<>();
+            String sql = "SELECT id, name, email, mobile, address FROM users";
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    users.add(new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"), rs.getString("mobile"), rs.getString("address")));
+                }
+            } catch (SQLException e) {
+                fail("List Users Error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            lastError = "List Users Error: " + e.getMessage();
-            e.printStackTrace();
-        }
-        return users;
+            return users;
+        });
     }
 
     public static User getUserByEmail(String email) {
-        String sql = "SELECT id, name, email, mobile, address FROM users WHERE email = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"), rs.getString("mobile"), rs.getString("address"));
+        return timed("db.getUserByEmail", () -> {
+            String sql = "SELECT id, name, email, mobile, address FROM users WHERE email = ?";
+            try (Connection conn = readConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, email);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"), rs.getString("mobile"), rs.getString("address"));
+                }
+            } catch (SQLException e) {
+                fail("Get User Error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            lastError = "Get User Error: " + e.getMessage();
-            e.printStackTrace();
-        }
-        return null;
+            return null;
+        });
     }
 
     public static boolean addMenuItem(String itemName, String category, double price, String status, String description, String imagePath) {
-        String sql = "INSERT INTO menu_items(item_name, category, price, status, description, image_path) VALUES(?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, itemName);
-            pstmt.setString(2, category);
-            pstmt.setDouble(3, price);
-            pstmt.setString(4, status);
-            pstmt.setString(5, description);
-            pstmt.setString(6, imagePath);
-            pstmt.executeUpdate();
+        return timed("db.addMenuItem", () -> {
+            String sql = "INSERT INTO menu_items(item_name, category, price, status, description, image_path) VALUES(?, ?, ?, ?, ?, ?)";
+            Integer id = write("Add Menu Item Error: ", conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, itemName);
+                    pstmt.setString(2, category);
+                    pstmt.setDouble(3, price);
+                    pstmt.setString(4, status);
+                    pstmt.setString(5, description);
+                    pstmt.setString(6, imagePath);
+                    pstmt.executeUpdate();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        return keys.next() ? keys.getInt(1) : 0;
+                    }
+                }
+            }, null);
+            if (id == null) return false;
+            // The catalog is only touched once the write has committed.
+            if (id > 0) {
+                MenuCatalog.get().put(new MenuItem(id, itemName, category, price, status, description, imagePath));
+            } else {
+                MenuCatalog.get().reload();
+            }
             return true;
-        } catch (SQLException e) {
-            lastError = "Add Menu Item Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        });
     }
 
     public static boolean updateMenuItem(int id, String itemName, String category, double price, String status, String description, String imagePath) {
-        String sql = "UPDATE menu_items SET item_name = ?, category = ?, price = ?, status = ?, description = ?, image_path = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, itemName);
-            pstmt.setString(2, category);
-            pstmt.setDouble(3, price);
-            pstmt.setString(4, status);
-            pstmt.setString(5, description);
-            pstmt.setString(6, imagePath);
-            pstmt.setInt(7, id);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Update Menu Item Error: " + e.getMessage();
-            e.printStackTrace();
-            return false;
-        }
+        return timed("db.updateMenuItem", () -> {
+            String sql = "UPDATE menu_items SET item_name = ?, category = ?, price = ?, status = ?, description = ?, image_path = ? WHERE id = ?";
+            boolean updated = write("Update Menu Item Error: ", conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, itemName);
+                    pstmt.setString(2, category);
+                    pstmt.setDouble(3, price);
+                    pstmt.setString(4, status);
+                    pstmt.setString(5, description);
+                    pstmt.setString(6, imagePath);
+                    pstmt.setInt(7, id);
+                    pstmt.executeUpdate();
+                    return true;
+                }
+            }, false);
+            if (updated) MenuCatalog.get().put(new MenuItem(id, itemName, category, price, status, description, imagePath));
+            return updated;
+        });
     }
 
     public static boolean deleteMenuItem(int id) {
-        String sql = "DELETE FROM menu_items WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            lastError = "Delete Error: " + e.getMessage();
-            return false;
-        }
+        return timed("db.deleteMenuItem", () -> {
+            String sql = "DELETE FROM menu_items WHERE id = ?";
+            boolean deleted = write("Delete Error: ", conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    pstmt.executeUpdate();
+                    return true;
+                }
+            }, false);
+            if (deleted) MenuCatalog.get().remove(id);
+            return deleted;
+        });
     }
 
+    /** Reads the menu straight from the database. Screens should use {@link MenuCatalog} instead. */
     public static List<MenuItem> getAllMenuItems() {
-        List<MenuItem> menuItems = new ArrayList<>();
-        String sql = "SELECT id, item_name, category, price, status, description, image_path FROM menu_items";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                MenuItem item = new MenuItem();
-                item.setId(rs.getInt("id"));
-                item.setName(rs.getString("item_name"));
-                item.setCategory(rs.getString("category"));
-                item.setPrice(rs.getDouble("price"));
-                item.setStatus(rs.getString("status"));
-                item.setDescription(rs.getString("description"));
-                item.setImagePath(rs.getString("image_path"));
-                item.setAvailable("Available".equalsIgnoreCase(rs.getString("status")));
-                menuItems.add(item);
+        return timed("db.getAllMenuItems", () -> {
+            List<MenuItem> menuItems = new ArrayList<>();
+            String sql = "SELECT id, item_name, category, price, status, description, image_path FROM menu_items";
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    MenuItem item = new MenuItem();
+                    item.setId(rs.getInt("id"));
+                    item.setName(rs.getString("item_name"));
+                    item.setCategory(rs.getString("category"));
+                    item.setPrice(rs.getDouble("price"));
+                    item.setStatus(rs.getString("status"));
+                    item.setDescription(rs.getString("description"));
+                    item.setImagePath(rs.getString("image_path"));
+                    item.setAvailable("Available".equalsIgnoreCase(rs.getString("status")));
+                    menuItems.add(item);
+                }
+            } catch (SQLException e) {
+                fail("List Menu Items Error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            lastError = "List Menu Items Error: " + e.getMessage();
-            e.printStackTrace();
-        }
-        return menuItems;
+            return menuItems;
+        });
     }
 
+    /**
+     * Stores an uploaded image once under the hash of its contents and returns its path.
+     * Card and detail renditions are generated in the background.
+     */
     public static String storeImageFile(Path source) {
+        return timed("db.storeImageFile", () -> {
+            try {
+                return ImageStore.store(source).toString();
+            } catch (Exception e) {
+                fail("Image Store Error: " + e.getMessage());
+                e.printStackTrace();
+                return null;
+            }
+        });
+    }
+
+    // --- Bulk Menu Import / Export ---
+
+    private static final int IMPORT_BATCH_ROWS = 5000;
+    private static final String[] MENU_FILE_COLUMNS = {"id", "name", "category", "price", "status", "description", "image_path"};
+    private static final String[] MENU_STATUSES = {"Available", "Out of Stock"};
+
+    // Blank category, status, description or image_path keep what the item already has.
+    private static final String UPDATE_IMPORTED =
+            "UPDATE menu_items SET item_name = ?, category = COALESCE(?, category), price = ?, status = COALESCE(?, status), " +
+            "description = COALESCE(?, description), image_path = COALESCE(?, image_path) WHERE id = ";
+    private static final String UPDATE_IMPORTED_BY_ID = UPDATE_IMPORTED + "?";
+    private static final String UPDATE_IMPORTED_BY_NAME = UPDATE_IMPORTED + "(SELECT MIN(id) FROM menu_items WHERE item_name = ?)";
+    private static final String INSERT_IMPORTED =
+            "INSERT INTO menu_items(id, item_name, category, price, status, description, image_path) VALUES(?, ?, ?, ?, COALESCE(?, 'Available'), ?, ?)";
+
+    /**
+     * Adds and updates menu items from a CSV or JSON file ({@link RecordIO}), streaming it row by
+     * row. Columns: name and price are required; id, category, status, description and image_path
+     * are optional. A row with an id updates that item (or adds it under that id); a row without
+     * one updates the item with the same name, or adds a new item.
+     *
+     * Rows that fail validation are skipped and reported with their line. The rest are written
+     * IMPORT_BATCH_ROWS at a time, one transaction per batch, so only one batch is ever held in
+     * memory. Progress is reported in bytes of the file. The catalog is reloaded once at the end.
+     */
+    public static MenuImportResult importMenuItems(Path file, RecordIO.Progress progress) {
+        return timed("db.importMenuItems", () -> {
+            MenuImportResult result = new MenuImportResult();
+            List<MenuItem> batch = new ArrayList<>(IMPORT_BATCH_ROWS);
+            long[] batchLines = new long[IMPORT_BATCH_ROWS];
+            try (RecordIO.RecordReader reader = RecordIO.openReader(file)) {
+                long size = Files.size(file);
+                RecordIO.Record record;
+                while ((record = reader.next()) != null) {
+                    result.countRow();
+                    MenuItem item = parseImportedItem(record, result);
+                    if (item == null) continue;
+                    batchLines[batch.size()] = record.getLine();
+                    batch.add(item);
+                    if (batch.size() == IMPORT_BATCH_ROWS) {
+                        if (!writeImportBatch(batch, batchLines, result)) break;
+                        batch.clear();
+                        if (progress != null) progress.update(reader.bytesRead(), size);
+                    }
+                }
+                if (result.isComplete() && !batch.isEmpty()) writeImportBatch(batch, batchLines, result);
+                if (progress != null) progress.update(reader.bytesRead(), size);
+            } catch (IOException e) {
+                result.stop(e.getMessage());
+                fail("Import Menu Error: " + e.getMessage());
+            }
+            if (result.getInserted() + result.getUpdated() > 0) MenuCatalog.get().reload();
+            return result;
+        });
+    }
+
+    // The row as a menu item (id 0 when the row has none), or null after recording why it was rejected.
+    private static MenuItem parseImportedItem(RecordIO.Record record, MenuImportResult result) {
+        if (record.getProblem() != null) {
+            result.reject(record.getLine(), record.getProblem());
+            return null;
+        }
+        String name = record.get("name") != null ? record.get("name") : record.get("item_name");
+        if (name == null) {
+            result.reject(record.getLine(), "name is required");
+            return null;
+        }
+
+        int id = 0;
+        String idText = record.get("id");
+        if (idText != null) {
+            try {
+                id = Integer.parseInt(idText);
+            } catch (NumberFormatException e) {
+                id = -1;
+            }
+            if (id <= 0) {
+                result.reject(record.getLine(), "id must be a positive whole number, not '" + idText + "'");
+                return null;
+            }
+        }
+
+        String priceText = record.get("price");
+        double price;
         try {
-            Path imagesDir = Path.of(System.getProperty("user.dir"), "images");
-            if (!Files.exists(imagesDir)) Files.createDirectories(imagesDir);
-            Path dest = imagesDir.resolve(source.getFileName());
-            int count = 1;
-            String base = dest.getFileName().toString();
-            String name = base;
-            while (Files.exists(dest)) {
-                String suffix = "(" + count + ")";
-                int dot = base.lastIndexOf('.');
-                if (dot > 0) {
-                    name = base.substring(0, dot) + suffix + base.substring(dot);
-                } else {
-                    name = base + suffix;
-                }
-                dest = imagesDir.resolve(name);
-                count++;
-            }
-            Files.copy(source, dest, StandardCopyOption.REPLACE_EXISTING);
-            return dest.toString();
-        } catch (Exception e) {
-            lastError = "Image Store Error: " + e.getMessage();
-            e.printStackTrace();
+            price = priceText == null ? Double.NaN : Double.parseDouble(priceText);
+        } catch (NumberFormatException e) {
+            price = Double.NaN;
+        }
+        if (!Double.isFinite(price) || price < 0) {
+            result.reject(record.getLine(), priceText == null ? "price is required" : "invalid price '" + priceText + "'");
             return null;
         }
+
+        String status = record.get("status");
+        if (status != null) {
+            String canonical = null;
+            for (String known : MENU_STATUSES) {
+                if (known.equalsIgnoreCase(status)) canonical = known;
+            }
+            if (canonical == null) {
+                result.reject(record.getLine(), "status must be " + String.join(" or ", MENU_STATUSES) + ", not '" + status + "'");
+                return null;
+            }
+            status = canonical;
+        }
+        return new MenuItem(id, name, record.get("category"), price, status, record.get("description"), record.get("image_path"));
+    }
+
+    // What one import batch did; only applied to the result once the batch has committed.
+    private static final class ImportBatch {
+        long inserted;
+        long updated;
+        final List<Integer> rejectedRows = new ArrayList<>();
+        final List<String> rejectedReasons = new ArrayList<>();
+    }
+
+    // Writes one batch in a single transaction. Returns false, and stops the import, if it could not be committed.
+    private static boolean writeImportBatch(List<MenuItem> batch, long[] lines, MenuImportResult result) {
+        ImportBatch written = write("Import Menu Error: ", conn -> {
+            ImportBatch outcome = new ImportBatch();
+            try (PreparedStatement byId = conn.prepareStatement(UPDATE_IMPORTED_BY_ID);
+                 PreparedStatement byName = conn.prepareStatement(UPDATE_IMPORTED_BY_NAME);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_IMPORTED)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    MenuItem item = batch.get(i);
+                    try {
+                        PreparedStatement update = item.getId() > 0 ? byId : byName;
+                        update.setString(1, item.getName());
+                        update.setString(2, item.getCategory());
+                        update.setDouble(3, item.getPrice());
+                        update.setString(4, item.getStatus());
+                        update.setString(5, item.getDescription());
+                        update.setString(6, item.getImagePath());
+                        if (item.getId() > 0) update.setInt(7, item.getId());
+                        else update.setString(7, item.getName());
+                        if (update.executeUpdate() > 0) {
+                            outcome.updated++;
+                            continue;
+                        }
+                        if (item.getId() > 0) insert.setInt(1, item.getId());
+                        else insert.setNull(1, Types.INTEGER);
+                        insert.setString(2, item.getName());
+                        insert.setString(3, item.getCategory());
+                        insert.setDouble(4, item.getPrice());
+                        insert.setString(5, item.getStatus());
+                        insert.setString(6, item.getDescription());
+                        insert.setString(7, item.getImagePath());
+                        insert.executeUpdate();
+                        outcome.inserted++;
+                    } catch (SQLException e) {
+                        // Only this row's statement is undone; the rest of the batch goes ahead.
+                        outcome.rejectedRows.add(i);
+                        outcome.rejectedReasons.add(e.getMessage());
+                    }
+                }
+            }
+            return outcome;
+        }, null);
+        if (written == null) {
+            result.stop("could not save the rows from line " + lines[0] + " on: " + lastError.get());
+            return false;
+        }
+        result.countInserted(written.inserted);
+        result.countUpdated(written.updated);
+        for (int i = 0; i < written.rejectedRows.size(); i++) {
+            result.reject(lines[written.rejectedRows.get(i)], written.rejectedReasons.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Writes the whole menu to a CSV or JSON file in the format importMenuItems reads, streaming
+     * it from the database in id order. Progress is reported in items. Returns the number of items
+     * written, or -1 if the export failed.
+     */
+    public static long exportMenuItems(Path file, RecordIO.Progress progress) {
+        return timed("db.exportMenuItems", () -> {
+            String sql = "SELECT id, item_name, category, price, status, description, image_path FROM menu_items ORDER BY id";
+            try (Connection conn = readConnection();
+                 Statement stmt = conn.createStatement()) {
+                long total;
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM menu_items")) {
+                    total = rs.next() ? rs.getLong(1) : -1;
+                }
+                long written = 0;
+                try (ResultSet rs = stmt.executeQuery(sql);
+                     RecordIO.RecordWriter out = RecordIO.openWriter(file, MENU_FILE_COLUMNS)) {
+                    while (rs.next()) {
+                        out.write(rs.getInt("id"), rs.getString("item_name"), rs.getString("category"), rs.getDouble("price"),
+                                rs.getString("status"), rs.getString("description"), rs.getString("image_path"));
+                        if (++written % 1000 == 0 && progress != null) progress.update(written, total);
+                    }
+                    out.finish();
+                }
+                if (progress != null) progress.update(written, total);
+                return written;
+            } catch (SQLException | IOException e) {
+                fail("Export Menu Error: " + e.getMessage());
+                e.printStackTrace();
+                return -1L;
+            }
+        });
+    }
+
+    // --- Order Export ---
+
+    private static final String[] ORDER_EXPORT_COLUMNS = {"order_id", "transaction_id", "order_date", "status", "customer_email",
+            "customer_name", "line_id", "item_name", "category", "quantity", "line_total"};
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Writes every order line of the orders placed in [fromDay, toDay) to a CSV or JSON Lines file
+     * ({@link RecordIO}; gzipped if the name ends in ".gz"), oldest order first. Days are
+     * 'YYYY-MM-DD' (UTC) like the sales reports; a null day leaves that end of the range open.
+     *
+     * Rows go from a forward-only cursor straight to the file, so memory use is the same for a
+     * thousand lines or ten million. The progress count and the cursor run in one read
+     * transaction, so they see the same snapshot of the database, unaffected by orders placed
+     * meanwhile. Progress is reported in orders. Returns the number of lines
+     * written, or -1 if the export failed (in which case no file is left behind).
+     */
+    public static long exportOrderLines(Path file, String fromDay, String toDay, RecordIO.Progress progress) {
+        return timed("db.exportOrderLines", () -> {
+            List<String> range = new ArrayList<>();
+            List<String> params = new ArrayList<>();
+            if (fromDay != null) {
+                range.add("h.created_at >= ?");
+                params.add(fromDay);
+            }
+            if (toDay != null) {
+                range.add("h.created_at < ?");
+                params.add(toDay);
+            }
+            String where = range.isEmpty() ? "" : " WHERE " + String.join(" AND ", range);
+            String countSql = "SELECT COUNT(*) FROM order_header h" + where;
+            String sql = "SELECT h.id, h.transaction_id, h.created_at, h.status, h.user_email, u.name, " +
+                         "l.id, l.item_name, l.category, l.quantity, l.line_total " +
+                         "FROM order_header h JOIN order_line l ON l.order_id = h.id LEFT JOIN users u ON u.email = h.user_email" +
+                         where + " ORDER BY h.created_at, h.id, l.id";
+
+            try (Connection conn = readConnection()) {
+                // The count and the cursor share one read transaction, so they see the same orders.
+                conn.setAutoCommit(false);
+                try (PreparedStatement countStmt = conn.prepareStatement(countSql);
+                     PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    for (int i = 0; i < params.size(); i++) {
+                        countStmt.setString(i + 1, params.get(i));
+                        pstmt.setString(i + 1, params.get(i));
+                    }
+                    long totalOrders;
+                    try (ResultSet rs = countStmt.executeQuery()) {
+                        totalOrders = rs.next() ? rs.getLong(1) : -1;
+                    }
+                    pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+
+                    long lines = 0;
+                    long orders = 0;
+                    long lastOrderId = -1;
+                    try (ResultSet rs = pstmt.executeQuery();
+                         RecordIO.RecordWriter out = RecordIO.openWriter(file, ORDER_EXPORT_COLUMNS)) {
+                        while (rs.next()) {
+                            long orderId = rs.getLong(1);
+                            if (orderId != lastOrderId) {
+                                orders++;
+                                lastOrderId = orderId;
+                            }
+                            out.write(orderId, rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6),
+                                    rs.getLong(7), rs.getString(8), rs.getString(9), rs.getInt(10), rs.getDouble(11));
+                            if (++lines % 10_000 == 0 && progress != null) progress.update(orders, totalOrders);
+                        }
+                        out.finish();
+                    }
+                    if (progress != null) progress.update(orders, totalOrders);
+                    return lines;
+                } finally {
+                    conn.rollback(); // Only ends the read transaction: nothing was written
+                }
+            } catch (SQLException | IOException e) {
+                fail("Export Orders Error: " + e.getMessage());
+                e.printStackTrace();
+                return -1L;
+            }
+        });
+    }
+
+    /**
+     * One page of a customer's orders, one OrderSummary per transaction with its lines. Paging is
+     * keyset-based on (created_at, id) like {@link #getOrdersPage}: pass the date and id of the last
+     * order already shown, or null/0 for the first page. A null status means all statuses.
+     */
+    public static List<OrderSummary> getOrderHistoryPage(String userEmail, String status, boolean newestFirst,
+                                                         String afterDate, int afterId, int limit) {
+        return timed("db.getOrderHistoryPage", () -> {
+            String cmp = newestFirst ? "<" : ">";
+            StringBuilder sql = new StringBuilder(
+                    "SELECT id, transaction_id, status, total_price, item_count, created_at FROM order_header WHERE user_email = ? ");
+            if (status != null) sql.append("AND status = ? ");
+            if (afterDate != null) sql.append("AND created_at ").append(cmp).append("= ? AND (created_at ").append(cmp).append(" ? OR id ").append(cmp).append(" ?) ");
+            sql.append(newestFirst ? "ORDER BY created_at DESC, id DESC" : "ORDER BY created_at, id").append(" LIMIT ?");
+
+            List<OrderSummary> page = new ArrayList<>();
+            Map<Integer, List<OrderLine>> linesByOrder = new HashMap<>();
+            try (Connection conn = readConnection()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                    int idx = 1;
+                    pstmt.setString(idx++, userEmail);
+                    if (status != null) pstmt.setString(idx++, status);
+                    if (afterDate != null) {
+                        pstmt.setString(idx++, afterDate);
+                        pstmt.setString(idx++, afterDate);
+                        pstmt.setInt(idx++, afterId);
+                    }
+                    pstmt.setInt(idx, limit);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            // Filled in below; the summary only keeps a read-only view of the list.
+                            List<OrderLine> lines = new ArrayList<>();
+                            linesByOrder.put(rs.getInt("id"), lines);
+                            page.add(new OrderSummary(rs.getInt("id"), rs.getString("transaction_id"), rs.getString("status"),
+                                    rs.getDouble("total_price"), rs.getInt("item_count"), rs.getString("created_at"), lines));
+                        }
+                    }
+                }
+                if (page.isEmpty()) return page;
+
+                // All lines of the page in one query.
+                String lineSql = "SELECT order_id, COALESCE(menu_item_id, 0) AS menu_item_id, item_name, quantity, line_total FROM order_line " +
+                                 "WHERE order_id IN (" + String.join(",", Collections.nCopies(page.size(), "?")) + ") ORDER BY order_id, id";
+                try (PreparedStatement pstmt = conn.prepareStatement(lineSql)) {
+                    for (int i = 0; i < page.size(); i++) {
+                        pstmt.setInt(i + 1, page.get(i).getId());
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            linesByOrder.get(rs.getInt("order_id")).add(new OrderLine(rs.getInt("menu_item_id"),
+                                    rs.getString("item_name"), rs.getInt("quantity"), rs.getDouble("line_total")));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                fail("Get History Error: " + e.getMessage());
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+            return page;
+        });
+    }
+
+    // --- Sales Analytics ---
+    // Every report reads only the rollup tables kept by SalesRollups, so its cost depends on the
+    // length of the period and the size of the menu, never on how many orders there are. Days are
+    // 'YYYY-MM-DD' (UTC); from is inclusive, to is exclusive.
+
+    private static final String SOLD = "Accepted";
+
+    /** Orders, quantity and revenue in the period for each order status. */
+    public static Map<String, SalesFigure> getSalesByStatus(String fromDay, String toDay) {
+        return timed("db.getSalesByStatus", () -> {
+            Map<String, SalesFigure> byStatus = new LinkedHashMap<>();
+            String sql = "SELECT status, SUM(orders), SUM(quantity), SUM(revenue) FROM sales_hourly " +
+                         "WHERE hour >= ? AND hour < ? GROUP BY status";
+            for (SalesFigure figure : readSalesFigures("Get Sales Error: ", sql, fromDay, toDay)) {
+                byStatus.put(figure.getLabel(), figure);
+            }
+            return byStatus;
+        });
+    }
+
+    /**
+     * Accepted sales in the period, one figure per hour (labelled 'YYYY-MM-DD HH:00') or per day,
+     * oldest first. Buckets without sales are left out. A null category means all categories;
+     * orders are only counted for all categories.
+     */
+    public static List<SalesFigure> getSalesOverTime(String fromDay, String toDay, boolean hourly, String category) {
+        return timed("db.getSalesOverTime", () -> {
+            String sql;
+            if (category == null) {
+                String bucket = hourly ? "hour" : "substr(hour, 1, 10)";
+                sql = "SELECT " + bucket + ", SUM(orders), SUM(quantity), SUM(revenue) FROM sales_hourly " +
+                      "WHERE hour >= ? AND hour < ? AND status = ? GROUP BY 1 ORDER BY 1";
+                return readSalesFigures("Get Sales Error: ", sql, fromDay, toDay, SOLD);
+            }
+            String table = hourly ? "sales_category_hourly" : "sales_category_daily";
+            String bucket = hourly ? "hour" : "day";
+            sql = "SELECT " + bucket + ", 0, quantity, revenue FROM " + table + " " +
+                  "WHERE category = ? AND " + bucket + " >= ? AND " + bucket + " < ? AND status = ? ORDER BY 1";
+            return readSalesFigures("Get Sales Error: ", sql, category, fromDay, toDay, SOLD);
+        });
     }
 
-    public static List<String> getOrderHistory(String userEmail) {
-        List<String> history = new ArrayList<>();
-        String sql = "SELECT item_name, quantity, total_price, order_date, status FROM orders WHERE user_email = ? ORDER BY order_date DESC";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+    /** Accepted sales of one item in the period, per hour or per day, oldest first. */
+    public static List<SalesFigure> getItemSalesOverTime(int menuItemId, String fromDay, String toDay, boolean hourly) {
+        return timed("db.getItemSalesOverTime", () -> {
+            String table = hourly ? "sales_item_hourly" : "sales_item_daily";
+            String bucket = hourly ? "hour" : "day";
+            String sql = "SELECT " + bucket + ", 0, quantity, revenue FROM " + table + " " +
+                         "WHERE menu_item_id = ? AND " + bucket + " >= ? AND " + bucket + " < ? AND status = ? ORDER BY 1";
+            return readSalesFigures("Get Sales Error: ", sql, menuItemId, fromDay, toDay, SOLD);
+        });
+    }
+
+    /**
+     * The best-selling items in the period by accepted revenue, best first, each with its menu item
+     * id. Items are named as on the menu now, or as last sold if they have left it.
+     */
+    public static List<SalesFigure> getTopItems(String fromDay, String toDay, int limit) {
+        return timed("db.getTopItems", () -> {
+            String sql = "SELECT COALESCE(m.item_name, MAX(s.item_name)), 0, SUM(s.quantity), SUM(s.revenue), s.menu_item_id " +
+                         "FROM sales_item_daily s LEFT JOIN menu_items m ON m.id = s.menu_item_id " +
+                         "WHERE s.day >= ? AND s.day < ? AND s.status = ? GROUP BY s.menu_item_id ORDER BY 4 DESC, 1 LIMIT ?";
+            return readSalesFigures("Get Top Items Error: ", sql, fromDay, toDay, SOLD, limit);
+        });
+    }
+
+    /** Accepted sales in the period per category, highest revenue first. */
+    public static List<SalesFigure> getCategorySales(String fromDay, String toDay) {
+        return timed("db.getCategorySales", () -> {
+            String sql = "SELECT category, 0, SUM(quantity), SUM(revenue) FROM sales_category_daily " +
+                         "WHERE day >= ? AND day < ? AND status = ? GROUP BY category ORDER BY 4 DESC, 1";
+            return readSalesFigures("Get Category Sales Error: ", sql, fromDay, toDay, SOLD);
+        });
+    }
+
+    // Runs a report query whose columns are label, orders, quantity, revenue and, for items, the id.
+    private static List<SalesFigure> readSalesFigures(String errorPrefix, String sql, Object... params) {
+        List<SalesFigure> figures = new ArrayList<>();
+        try (Connection conn = readConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userEmail);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                String item = rs.getString("item_name");
-                int qty = rs.getInt("quantity");
-                double total = rs.getDouble("total_price");
-                String date = rs.getString("order_date");
-                String status = rs.getString("status");
-                history.add(String.format("%s | %s x%d | $%.2f [%s]", date, item, qty, total, status));
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                boolean withId = rs.getMetaData().getColumnCount() > 4;
+                while (rs.next()) {
+                    // Moving an order between statuses can leave sums like 1e-13 behind.
+                    figures.add(new SalesFigure(withId ? rs.getInt(5) : 0, rs.getString(1), rs.getInt(2), rs.getInt(3),
+                            Math.round(rs.getDouble(4) * 100) / 100.0));
+                }
             }
         } catch (SQLException e) {
-            lastError = "Get History Error: " + e.getMessage();
+            fail(errorPrefix + e.getMessage());
             e.printStackTrace();
         }
-        return history;
+        return figures;
     }
 }
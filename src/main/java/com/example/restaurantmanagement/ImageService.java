@@ -0,0 +1,202 @@
+package com.example.restaurantmanagement;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads menu images at the size they are shown, off the FX thread, and keeps the decoded results
+ * in an LRU cache bounded by (estimated) bytes, shared by every screen.
+ *
+ * Views show a placeholder until the image has finished decoding.
+ */
+public class ImageService {
+
+    private static final ImageService INSTANCE = new ImageService(Long.getLong("images.cache.maxBytes", 64L * 1024 * 1024));
+    private static final String KEY_PROPERTY = "imageService.key";
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Image placeholder;
+
+    public ImageService(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ImageService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shows the image at imagePath in the view, decoded to fit width x height. The view shows a
+     * placeholder until decoding finishes; if the view has been given another image by then
+     * (e.g. a recycled cell), the late result is ignored.
+     *
+     * When the image has a pre-generated rendition large enough for the box, that smaller file is
+     * decoded instead of the original; the original is only used if the rendition is missing.
+     */
+    public void load(ImageView view, String imagePath, double width, double height) {
+        if (imagePath == null || imagePath.isEmpty()) {
+            view.getProperties().remove(KEY_PROPERTY);
+            view.setImage(null);
+            return;
+        }
+        String requestKey = key(imagePath, width, height);
+        view.getProperties().put(KEY_PROPERTY, requestKey);
+
+        String rendition = renditionFor(imagePath, width, height);
+        if (rendition != null) {
+            show(view, requestKey, rendition, width, height, imagePath);
+        } else {
+            show(view, requestKey, imagePath, width, height, null);
+        }
+    }
+
+    private void show(ImageView view, String requestKey, String path, double width, double height, String fallbackPath) {
+        Image image = get(path, width, height);
+        if (image.getProgress() >= 1.0) {
+            finish(view, requestKey, image, width, height, fallbackPath);
+            return;
+        }
+        view.setImage(placeholder());
+        image.progressProperty().addListener((obs, oldV, newV) -> {
+            if (newV.doubleValue() >= 1.0 && requestKey.equals(view.getProperties().get(KEY_PROPERTY))) {
+                finish(view, requestKey, image, width, height, fallbackPath);
+            }
+        });
+    }
+
+    private void finish(ImageView view, String requestKey, Image image, double width, double height, String fallbackPath) {
+        if (!image.isError()) {
+            view.setImage(image);
+        } else if (fallbackPath != null) {
+            show(view, requestKey, fallbackPath, width, height, null);
+        } else {
+            view.setImage(null);
+        }
+    }
+
+    private static String renditionFor(String imagePath, double width, double height) {
+        for (ImageStore.Rendition rendition : ImageStore.Rendition.values()) {
+            if (width <= rendition.getWidth() && height <= rendition.getHeight()) {
+                return ImageStore.renditionPath(imagePath, rendition);
+            }
+        }
+        return null;
+    }
+
+    /** Returns the cached image for this path and size, or starts loading it in the background. */
+    public synchronized Image get(String imagePath, double width, double height) {
+        String key = key(imagePath, width, height);
+        Entry entry = cache.get(key);
+        if (entry != null && !entry.image.isError()) {
+            hits.incrementAndGet();
+            return entry.image;
+        }
+        misses.incrementAndGet();
+        if (entry != null) remove(key);
+
+        long start = System.nanoTime();
+        Image image = new Image(new File(imagePath).toURI().toString(), width, height, true, true, true);
+        // Charge the full requested box now and settle to the real size once decoded.
+        entry = new Entry(image, estimateBytes(width, height));
+        cache.put(key, entry);
+        currentBytes += entry.bytes;
+        final Entry loading = entry;
+        image.progressProperty().addListener((obs, oldV, newV) -> {
+            if (newV.doubleValue() >= 1.0) {
+                // From the request to the decoded image reaching the FX thread.
+                Metrics.record("image.decode", start, image.isError());
+                settle(key, loading);
+            }
+        });
+        evict();
+        return image;
+    }
+
+    private synchronized void settle(String key, Entry entry) {
+        if (cache.get(key) != entry) return;
+        if (entry.image.isError()) {
+            remove(key);
+            return;
+        }
+        long actual = estimateBytes(entry.image.getWidth(), entry.image.getHeight());
+        currentBytes += actual - entry.bytes;
+        entry.bytes = actual;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = cache.entrySet().iterator();
+        // Keep at least the most recent image even if it alone is over budget.
+        while (currentBytes > maxBytes && cache.size() > 1 && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            currentBytes -= eldest.bytes;
+            it.remove();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = cache.remove(key);
+        if (removed != null) currentBytes -= removed.bytes;
+    }
+
+    // --- Statistics ---
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public synchronized long getCachedBytes() { return currentBytes; }
+    public synchronized int getCachedCount() { return cache.size(); }
+
+    @Override
+    public String toString() {
+        return String.format("ImageService[hits=%d, misses=%d, images=%d, bytes=%d/%d]",
+                getHitCount(), getMissCount(), getCachedCount(), getCachedBytes(), maxBytes);
+    }
+
+    // --- Helpers ---
+
+    private synchronized Image placeholder() {
+        if (placeholder == null) {
+            WritableImage img = new WritableImage(4, 4);
+            PixelWriter writer = img.getPixelWriter();
+            for (int x = 0; x < 4; x++) {
+                for (int y = 0; y < 4; y++) {
+                    writer.setColor(x, y, Color.web("#eeeeee"));
+                }
+            }
+            placeholder = img;
+        }
+        return placeholder;
+    }
+
+    private static String key(String imagePath, double width, double height) {
+        return imagePath + "@" + (int) width + "x" + (int) height;
+    }
+
+    private static long estimateBytes(double width, double height) {
+        // Decoded images are 32-bit ARGB.
+        return Math.max(1L, (long) Math.ceil(width) * (long) Math.ceil(height) * 4L);
+    }
+
+    private static final class Entry {
+        final Image image;
+        long bytes;
+
+        Entry(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+}
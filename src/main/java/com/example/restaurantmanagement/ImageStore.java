@@ -0,0 +1,166 @@
+package com.example.restaurantmanagement;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Content-addressed storage for uploaded menu images. Each upload is stored once under the
+ * SHA-256 of its bytes (images/&lt;digest&gt;.&lt;ext&gt;), so uploading the same photo twice costs nothing.
+ *
+ * Smaller card and detail renditions (images/&lt;digest&gt;-card.jpg, -detail.jpg) are generated in the
+ * background right after the upload, so customer screens never have to decode the original.
+ */
+public class ImageStore {
+
+    public enum Rendition {
+        CARD("card", 260, 200),
+        DETAIL("detail", 600, 400);
+
+        final String suffix;
+        final int width;
+        final int height;
+
+        Rendition(String suffix, int width, int height) {
+            this.suffix = suffix;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    private static final ExecutorService RENDERER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "image-renditions");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static Path imagesDir() {
+        return Path.of(System.getProperty("user.dir"), "images");
+    }
+
+    /**
+     * Stores the file under its digest and queues its renditions. Returns the stored original's
+     * path; if the same content was stored before, the existing copy is reused.
+     */
+    public static Path store(Path source) throws IOException {
+        Path dir = imagesDir();
+        Files.createDirectories(dir);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+
+        // Hash while copying so the upload is read only once.
+        Path temp = Files.createTempFile(dir, "upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            Path dest = dir.resolve(HexFormat.of().formatHex(digest.digest()) + extensionOf(source));
+            if (!Files.exists(dest)) {
+                try {
+                    Files.move(temp, dest, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignore) {
+                    // Stored concurrently by another upload of the same file.
+                }
+            }
+            queueRenditions(dest);
+            return dest;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Path of the given rendition for a stored original, or null if the image was not stored
+     * by this class (e.g. uploaded by an older version). The file may not exist yet.
+     */
+    public static String renditionPath(String originalPath, Rendition rendition) {
+        if (originalPath == null) return null;
+        Path original = Path.of(originalPath);
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        if (base.length() != 64 || !base.chars().allMatch(c -> Character.digit(c, 16) >= 0)) return null;
+        return original.resolveSibling(base + "-" + rendition.suffix + ".jpg").toString();
+    }
+
+    /** Regenerates any missing renditions in the background. */
+    public static void queueRenditions(Path original) {
+        RENDERER.submit(() -> {
+            for (Rendition rendition : Rendition.values()) {
+                long start = System.nanoTime();
+                boolean failed = false;
+                try {
+                    writeRendition(original, rendition);
+                } catch (IOException | RuntimeException e) {
+                    failed = true;
+                    System.err.println("Rendition " + rendition.suffix + " failed for " + original + ": " + e.getMessage());
+                }
+                Metrics.record("image.rendition", start, failed);
+            }
+        });
+    }
+
+    private static void writeRendition(Path original, Rendition rendition) throws IOException {
+        String target = renditionPath(original.toString(), rendition);
+        if (target == null || Files.exists(Path.of(target))) return;
+
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) throw new IOException("Unsupported image format");
+
+        double scale = Math.min(1.0, Math.min((double) rendition.width / source.getWidth(), (double) rendition.height / source.getHeight()));
+        int w = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha; transparent areas become white like the menu cards.
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(source, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+
+        Path temp = Files.createTempFile(original.getParent(), "rendition-", ".tmp");
+        try {
+            if (!ImageIO.write(scaled, "jpg", temp.toFile())) throw new IOException("No JPEG writer available");
+            Files.move(temp, Path.of(target), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extensionOf(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -4,7 +4,6 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -13,8 +12,6 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 
-import java.io.File;
-
 public class ItemDetailController {
 
     @FXML private ImageView detailImageView;
@@ -33,6 +30,12 @@ public class ItemDetailController {
 
     private UserDashboard dashboardController;
     private MenuItem detailMenuItem;
+    private ViewTasks tasks;
+
+    @FXML
+    public void initialize() {
+        tasks = new ViewTasks(detailNameLabel, null);
+    }
 
     public void initData(UserDashboard dashboardController, MenuItem item) {
         this.dashboardController = dashboardController;
@@ -47,13 +50,7 @@ public class ItemDetailController {
         detailDescTextFlow.getChildren().clear();
         detailDescTextFlow.getChildren().add(descText);
         
-        detailImageView.setImage(null);
-        if (item.getImagePath() != null && !item.getImagePath().isEmpty()) {
-            try {
-                File file = new File(item.getImagePath());
-                if (file.exists()) detailImageView.setImage(new Image(file.toURI().toString()));
-            } catch (Exception e) {}
-        }
+        ImageService.get().load(detailImageView, item.getImagePath(), detailImageView.getFitWidth(), detailImageView.getFitHeight());
         
         detailQuantitySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 20, 1));
         detailStatusLabel.setText("");
@@ -64,11 +61,12 @@ public class ItemDetailController {
     private void setupRatingDisplay() {
         updateAverageRatingDisplay();
 
-        boolean hasOrdered = DatabaseHelper.hasUserOrderedItem(dashboardController.getCurrentUserEmail(), detailMenuItem.getName());
+        // Whether the user may rate and what they rated before both come from the session, not the database.
+        UserSession session = dashboardController.getSession();
         
-        if (hasOrdered) {
+        if (session.canRate(detailMenuItem.getId())) {
             ratingSection.setVisible(true);
-            int userPreviousRating = DatabaseHelper.getUserRating(dashboardController.getCurrentUserEmail(), detailMenuItem.getName());
+            int userPreviousRating = session.getRating(detailMenuItem.getId());
             if (userPreviousRating > 0) {
                 ratingStatusLabel.setText("You rated this item " + userPreviousRating + " stars.");
             } else {
@@ -81,8 +79,8 @@ public class ItemDetailController {
     }
 
     private void updateAverageRatingDisplay() {
-        double avgRating = DatabaseHelper.getAverageRating(detailMenuItem.getName());
-        displayStars(averageRatingBox, avgRating);
+        int itemId = detailMenuItem.getId();
+        tasks.run(() -> DatabaseHelper.getAverageRating(itemId), avgRating -> displayStars(averageRatingBox, avgRating));
     }
 
     private void displayStars(HBox container, double rating) {
@@ -134,15 +132,19 @@ public class ItemDetailController {
             
             final int rating = i;
             star.setOnMouseClicked(e -> {
-                if (DatabaseHelper.addRating(dashboardController.getCurrentUserEmail(), detailMenuItem.getName(), rating)) {
-                    ratingStatusLabel.setText("Thanks for your rating!");
-                    ratingStatusLabel.setStyle("-fx-text-fill: green;");
-                    setupUserRatingStars(rating); 
-                    updateAverageRatingDisplay();
-                } else {
-                    ratingStatusLabel.setText("Failed to save rating.");
-                    ratingStatusLabel.setStyle("-fx-text-fill: red;");
-                }
+                UserSession session = dashboardController.getSession();
+                int itemId = detailMenuItem.getId();
+                tasks.run(() -> session.rate(itemId, rating), saved -> {
+                    if (saved) {
+                        ratingStatusLabel.setText("Thanks for your rating!");
+                        ratingStatusLabel.setStyle("-fx-text-fill: green;");
+                        setupUserRatingStars(rating); 
+                        updateAverageRatingDisplay();
+                    } else {
+                        ratingStatusLabel.setText("Failed to save rating.");
+                        ratingStatusLabel.setStyle("-fx-text-fill: red;");
+                    }
+                });
             });
             
             star.setOnMouseEntered(e -> {
@@ -157,7 +159,7 @@ public class ItemDetailController {
             });
             
             star.setOnMouseExited(e -> {
-                int persistentRating = DatabaseHelper.getUserRating(dashboardController.getCurrentUserEmail(), detailMenuItem.getName());
+                int persistentRating = dashboardController.getSession().getRating(detailMenuItem.getId());
                 for (int j = 0; j < 5; j++) {
                     Label s = (Label) userRatingBox.getChildren().get(j);
                     if (j < persistentRating) {
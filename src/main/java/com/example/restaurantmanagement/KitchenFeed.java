@@ -0,0 +1,84 @@
+package com.example.restaurantmanagement;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link KitchenQueue} in step with the database, so the kitchen board shows the orders
+ * placed at every terminal, not just this one. On its first poll the board is filled with every
+ * Pending order; after that the order change log (the one the admin order feed follows) is read
+ * for new orders, lines added to pending ones and removed orders, every -Dkitchen.pollMillis
+ * (default 500).
+ *
+ * Polls run on one daemon thread while the kitchen board is shown; once it is shown again the
+ * next poll catches up from where the last one stopped. Nothing else feeds the queue, so
+ * processes that never show the board (the seeder, benchmarks) leave it alone.
+ */
+public class KitchenFeed {
+
+    private static final long POLL_MILLIS = Long.getLong("kitchen.pollMillis", 500L);
+    private static final int BATCH = 500;
+
+    private static final KitchenFeed INSTANCE = new KitchenFeed(KitchenQueue.get());
+
+    private final KitchenQueue queue;
+    private long position = -1; // Change-log position read up to; -1 until the board is filled
+    private ScheduledExecutorService executor;
+
+    KitchenFeed(KitchenQueue queue) {
+        this.queue = queue;
+    }
+
+    public static KitchenFeed get() {
+        return INSTANCE;
+    }
+
+    /** Starts polling in the background; does nothing if it already is. */
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kitchen-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::pollQuietly, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops polling; a poll already running is left to finish, so the position stays right. */
+    public synchronized void stop() {
+        if (executor != null) executor.shutdown();
+        executor = null;
+    }
+
+    // An exception would end the schedule; a failed poll is simply tried again on the next one.
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Applies everything that changed since the last poll (the first poll fills the board). */
+    synchronized void poll() {
+        if (position < 0) {
+            // The position is read first: an order that changes while the Pending orders are read
+            // is seen again in the log, which apply shrugs off.
+            long latest = DatabaseHelper.getLatestOrderChange();
+            for (KitchenOrder order : DatabaseHelper.getPendingKitchenOrders()) {
+                queue.apply(order);
+            }
+            position = latest;
+        }
+        List<KitchenOrder> changes;
+        do {
+            changes = DatabaseHelper.getKitchenOrderChanges(position, BATCH);
+            for (KitchenOrder order : changes) {
+                queue.apply(order);
+                position = order.getChangeSeq();
+            }
+        } while (changes.size() == BATCH);
+    }
+}
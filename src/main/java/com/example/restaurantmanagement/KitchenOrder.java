@@ -0,0 +1,37 @@
+package com.example.restaurantmanagement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An order as the kitchen reads it from the database: who it is for, its status and, while it is
+ * Pending, its lines (with their ids, so lines added later can be told apart).
+ */
+public class KitchenOrder {
+    private final long changeSeq; // Position in the order change log; 0 when read outside the log
+    private final long orderId;
+    private final String transactionId;
+    private final String customer;
+    private final String status;
+    private final long changedAt; // Epoch milliseconds of the last change to the order
+    private final List<OrderLine> lines;
+
+    public KitchenOrder(long changeSeq, long orderId, String transactionId, String customer, String status, long changedAt, List<OrderLine> lines) {
+        this.changeSeq = changeSeq;
+        this.orderId = orderId;
+        this.transactionId = transactionId;
+        this.customer = customer;
+        this.status = status;
+        this.changedAt = changedAt;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    public long getChangeSeq() { return changeSeq; }
+    public long getOrderId() { return orderId; }
+    public String getTransactionId() { return transactionId; }
+    public String getCustomer() { return customer; }
+    public String getStatus() { return status; }
+    public long getChangedAt() { return changedAt; }
+    /** Oldest first; empty unless the order is Pending. */
+    public List<OrderLine> getLines() { return lines; }
+}
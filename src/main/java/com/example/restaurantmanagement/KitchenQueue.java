@@ -0,0 +1,238 @@
+package com.example.restaurantmanagement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The kitchen's queue of tickets, fed with the orders placed at every terminal (by
+ * {@link KitchenFeed}, from the database) and worked off by the prep stations. Waiting tickets are
+ * ordered rush first, then by promised time, then first come, first served. The promised time is
+ * the time the lines were ordered plus -Dkitchen.basePrepMinutes (default 8) and
+ * -Dkitchen.perItemMinutes (default 1) for every item ordered.
+ *
+ * Nothing here takes a lock. Waiting tickets are entries in a ConcurrentSkipListSet; a station
+ * claims by taking the first entry with pollFirst and moving its ticket from WAITING to PREPARING
+ * by compare-and-set, so a ticket is never claimed twice and a station never waits on another.
+ * Entries are immutable, as skip-list keys must be: rushing or putting back a ticket adds a new
+ * entry instead of moving the old one, and an entry that is no longer its ticket's current one,
+ * or whose ticket has stopped waiting, is dropped when it reaches the front. Claiming and
+ * cancelling first swap the ticket's current entry for one that is off the queue (or for none),
+ * by compare-and-set as well, so a rush racing them fails instead of queueing a ticket that has
+ * already left the queue.
+ *
+ * Tickets themselves are kept in memory only. When the feed starts it puts every Pending order
+ * back on the board, so a restart loses the stations' progress but no order: tickets that were
+ * being prepared, or done while their order stayed Pending, come back as waiting.
+ */
+public class KitchenQueue {
+
+    // A ticket's place in the queue.
+    static final class Entry {
+        final KitchenTicket ticket;
+        final int priority;
+        final long sequence;
+        final boolean queued; // False once a station has taken it: the ticket keeps its priority, but is off the queue
+
+        Entry(KitchenTicket ticket, int priority, long sequence, boolean queued) {
+            this.ticket = ticket;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queued = queued;
+        }
+    }
+
+    private static final Comparator<Entry> QUEUE_ORDER = Comparator.<Entry>comparingInt(e -> -e.priority)
+            .thenComparingLong(e -> e.ticket.getPromisedAt())
+            .thenComparingLong(e -> e.sequence);
+
+    private static final KitchenQueue INSTANCE = new KitchenQueue(
+            Long.getLong("kitchen.basePrepMinutes", 8L), Long.getLong("kitchen.perItemMinutes", 1L));
+
+    private final ConcurrentSkipListSet<Entry> waiting = new ConcurrentSkipListSet<>(QUEUE_ORDER);
+    private final Map<Long, KitchenTicket> open = new ConcurrentHashMap<>(); // Waiting or preparing, by ticket id
+    // Highest line id already on a ticket, for each Pending order the feed has seen
+    private final Map<Long, Long> ticketedThrough = new ConcurrentHashMap<>();
+    private final long basePrepMillis;
+    private final long perItemMillis;
+
+    private final AtomicLong nextTicketId = new AtomicLong();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public KitchenQueue(long basePrepMinutes, long perItemMinutes) {
+        this.basePrepMillis = TimeUnit.MINUTES.toMillis(basePrepMinutes);
+        this.perItemMillis = TimeUnit.MINUTES.toMillis(perItemMinutes);
+    }
+
+    public static KitchenQueue get() {
+        return INSTANCE;
+    }
+
+    // --- Producers ---
+
+    /**
+     * Brings the board in line with an order as the database has it now. A Pending order gets a
+     * ticket for its lines that are not on one yet (its first lines, or lines added to it since),
+     * so seeing the same order again does no harm. A removed order's tickets are cancelled; an
+     * accepted order keeps the tickets it has.
+     */
+    public void apply(KitchenOrder order) {
+        long orderId = order.getOrderId();
+        if (!"Pending".equals(order.getStatus())) {
+            ticketedThrough.remove(orderId);
+            if ("Removed".equals(order.getStatus())) cancelOrder(orderId);
+            return;
+        }
+        long through = ticketedThrough.getOrDefault(orderId, 0L);
+        List<OrderLine> fresh = new ArrayList<>();
+        for (OrderLine line : order.getLines()) {
+            if (line.getId() > through) fresh.add(line);
+        }
+        if (fresh.isEmpty()) return;
+        ticketedThrough.put(orderId, fresh.get(fresh.size() - 1).getId());
+        long placedAt = order.getChangedAt() > 0 ? order.getChangedAt() : System.currentTimeMillis();
+        enqueue(orderId, order.getTransactionId(), order.getCustomer(), fresh, placedAt, KitchenTicket.NORMAL);
+    }
+
+    /** Adds a ticket for lines ordered at placedAt (epoch milliseconds). */
+    public KitchenTicket enqueue(long orderId, String transactionId, String customer, List<OrderLine> lines, long placedAt, int priority) {
+        int quantity = 0;
+        List<String> items = new ArrayList<>(lines.size());
+        for (OrderLine line : lines) {
+            quantity += line.getQuantity();
+            items.add(line.getQuantity() + " x " + line.getItemName());
+        }
+        KitchenTicket ticket = new KitchenTicket(nextTicketId.incrementAndGet(), orderId, transactionId, customer, items,
+                placedAt, placedAt + basePrepMillis + perItemMillis * quantity);
+        open.put(ticket.getId(), ticket);
+        offer(ticket, priority);
+        enqueued.incrementAndGet();
+        changed();
+        return ticket;
+    }
+
+    // Gives a waiting ticket a new place in the queue. The entry is made current before it can be polled.
+    private void offer(KitchenTicket ticket, int priority) {
+        Entry entry = new Entry(ticket, priority, nextSequence.incrementAndGet(), true);
+        ticket.entry.set(entry);
+        waiting.add(entry);
+    }
+
+    // --- Stations ---
+
+    /** Claims the first waiting ticket for the station, or returns null if nothing is waiting. */
+    public KitchenTicket claim(String station) {
+        Entry entry;
+        while ((entry = waiting.pollFirst()) != null) {
+            KitchenTicket ticket = entry.ticket;
+            // Rushed, put back or cancelled since; a newer entry, if any, counts
+            if (!ticket.entry.compareAndSet(entry, new Entry(ticket, entry.priority, entry.sequence, false))) continue;
+            if (!ticket.transition(KitchenTicket.Status.WAITING, KitchenTicket.Status.PREPARING)) continue; // Cancelled
+            ticket.claimedBy(station, System.currentTimeMillis());
+            claimed.incrementAndGet();
+            changed();
+            return ticket;
+        }
+        return null;
+    }
+
+    /** Marks a ticket being prepared as done. False if it is not being prepared (it was cancelled). */
+    public boolean complete(KitchenTicket ticket) {
+        if (!ticket.transition(KitchenTicket.Status.PREPARING, KitchenTicket.Status.DONE)) return false;
+        open.remove(ticket.getId());
+        completed.incrementAndGet();
+        changed();
+        return true;
+    }
+
+    /** Puts a ticket being prepared back in the queue, in its old place. */
+    public boolean release(KitchenTicket ticket) {
+        // The status goes first: a station that meets the new entry must find the ticket waiting.
+        if (!ticket.transition(KitchenTicket.Status.PREPARING, KitchenTicket.Status.WAITING)) return false;
+        ticket.claimedBy(null, 0);
+        offer(ticket, ticket.getPriority());
+        changed();
+        return true;
+    }
+
+    /** Moves a waiting ticket ahead of every normal one. False if it is no longer waiting. */
+    public boolean rush(KitchenTicket ticket) {
+        Entry current = ticket.entry.get();
+        if (current == null || !current.queued || current.priority == KitchenTicket.RUSH) return false;
+        if (ticket.getStatus() != KitchenTicket.Status.WAITING) return false;
+        Entry rushed = new Entry(ticket, KitchenTicket.RUSH, nextSequence.incrementAndGet(), true);
+        // Fails if a station claimed it, the manager cancelled it or someone else rushed it first.
+        if (!ticket.entry.compareAndSet(current, rushed)) return false;
+        waiting.add(rushed);
+        waiting.remove(current);
+        changed();
+        return true;
+    }
+
+    /** Takes a ticket off the queue, or away from its station. False if it is already done or cancelled. */
+    public boolean cancel(KitchenTicket ticket) {
+        if (ticket.transition(KitchenTicket.Status.WAITING, KitchenTicket.Status.CANCELLED)) {
+            Entry entry = ticket.entry.getAndSet(null);
+            if (entry != null && entry.queued) waiting.remove(entry);
+        } else if (!ticket.transition(KitchenTicket.Status.PREPARING, KitchenTicket.Status.CANCELLED)) {
+            return false;
+        }
+        open.remove(ticket.getId());
+        cancelled.incrementAndGet();
+        changed();
+        return true;
+    }
+
+    /** Cancels every open ticket of the order. Returns how many were cancelled. */
+    public int cancelOrder(long orderId) {
+        int count = 0;
+        for (KitchenTicket ticket : open.values()) {
+            if (ticket.getOrderId() == orderId && cancel(ticket)) count++;
+        }
+        return count;
+    }
+
+    // --- Views ---
+
+    /** Waiting tickets in the order they will be claimed. */
+    public List<KitchenTicket> getWaiting() {
+        List<KitchenTicket> tickets = new ArrayList<>();
+        for (Entry entry : waiting) {
+            KitchenTicket ticket = entry.ticket;
+            if (ticket.entry.get() == entry && ticket.getStatus() == KitchenTicket.Status.WAITING) tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    /** Tickets being prepared, longest-running first. */
+    public List<KitchenTicket> getPreparing() {
+        List<KitchenTicket> tickets = new ArrayList<>();
+        for (KitchenTicket ticket : open.values()) {
+            if (ticket.getStatus() == KitchenTicket.Status.PREPARING) tickets.add(ticket);
+        }
+        tickets.sort(Comparator.comparingLong(KitchenTicket::getClaimedAt));
+        return tickets;
+    }
+
+    /** Goes up on every change, so a view can tell cheaply whether it needs redrawing. */
+    public long getVersion() { return version.get(); }
+
+    public long getEnqueued() { return enqueued.get(); }
+    public long getClaimed() { return claimed.get(); }
+    public long getCompleted() { return completed.get(); }
+    public long getCancelled() { return cancelled.get(); }
+
+    private void changed() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.restaurantmanagement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One checkout as the kitchen sees it: what to cook, for whom, and by when. A ticket waits in the
+ * {@link KitchenQueue} until a prep station claims it, and is then done or put back. It can be
+ * cancelled at any point before it is done (when the order is removed).
+ *
+ * The status only ever changes by compare-and-set, so when several stations act on the same
+ * ticket at once exactly one of them succeeds.
+ */
+public class KitchenTicket {
+
+    public enum Status { WAITING, PREPARING, DONE, CANCELLED }
+
+    public static final int NORMAL = 0;
+    public static final int RUSH = 1;
+
+    private final long id;
+    private final long orderId;
+    private final String transactionId;
+    private final String customer;
+    private final List<String> items;
+    private final long placedAt;
+    private final long promisedAt;
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.WAITING);
+    // Where the ticket currently sits in the queue; replaced when it is rushed, claimed or put back, cleared when it is cancelled.
+    final AtomicReference<KitchenQueue.Entry> entry = new AtomicReference<>();
+    private volatile String station;
+    private volatile long claimedAt;
+
+    KitchenTicket(long id, long orderId, String transactionId, String customer, List<String> items, long placedAt, long promisedAt) {
+        this.id = id;
+        this.orderId = orderId;
+        this.transactionId = transactionId;
+        this.customer = customer;
+        this.items = Collections.unmodifiableList(items);
+        this.placedAt = placedAt;
+        this.promisedAt = promisedAt;
+    }
+
+    boolean transition(Status from, Status to) {
+        return status.compareAndSet(from, to);
+    }
+
+    void claimedBy(String station, long at) {
+        this.station = station;
+        this.claimedAt = at;
+    }
+
+    public long getId() { return id; }
+    public long getOrderId() { return orderId; }
+    public String getTransactionId() { return transactionId; }
+    public String getCustomer() { return customer; }
+    /** The lines to cook, as "2 x Item". */
+    public List<String> getItems() { return items; }
+    /** Epoch milliseconds. */
+    public long getPlacedAt() { return placedAt; }
+    /** When the order was promised to be ready, in epoch milliseconds. */
+    public long getPromisedAt() { return promisedAt; }
+    public Status getStatus() { return status.get(); }
+    public int getPriority() {
+        KitchenQueue.Entry current = entry.get();
+        return current != null ? current.priority : NORMAL;
+    }
+    /** The station preparing the ticket, or null while it waits. */
+    public String getStation() { return station; }
+    public long getClaimedAt() { return claimedAt; }
+}
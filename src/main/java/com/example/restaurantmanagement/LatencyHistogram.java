@@ -0,0 +1,128 @@
+package com.example.restaurantmanagement;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution of one operation, in the style of HdrHistogram: values are counted in
+ * log-linear buckets (each power of two split into 32 sub-buckets), so any percentile is within
+ * about 3% of the true value while the histogram stays a fixed, small array.
+ *
+ * Recording is lock-free - one atomic increment per value - so it can sit on hot paths and be
+ * called from any thread. Snapshots read the counters without stopping writers; a snapshot taken
+ * while values are being recorded may be off by those few values.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Covers up to 2^42 ns (over an hour); anything longer lands in the last bucket.
+    private static final int MAX_MAGNITUDE = 42;
+    private static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Records one call that took the given number of nanoseconds. */
+    public void record(long nanos, boolean failed) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totalNanos.add(value);
+        if (failed) errors.increment();
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long max = maxNanos.get();
+        return new Snapshot(name, count, errors.sum(), count == 0 ? 0 : totalNanos.sum() / count,
+                percentile(copy, count, 0.50, max), percentile(copy, count, 0.95, max),
+                percentile(copy, count, 0.99, max), max);
+    }
+
+    private static int bucketOf(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value | 1);
+        if (magnitude < SUB_BUCKET_BITS) return (int) value;
+        if (magnitude > MAX_MAGNITUDE) return BUCKETS - 1;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /** The largest value that falls in the bucket. */
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double fraction, long max) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * fraction));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), max);
+        }
+        return max;
+    }
+
+    /** Counts and percentiles at one moment; times are in nanoseconds. */
+    public static final class Snapshot {
+        private final String name;
+        private final long count;
+        private final long errors;
+        private final long mean;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+
+        Snapshot(String name, long count, long errors, long mean, long p50, long p95, long p99, long max) {
+            this.name = name;
+            this.count = count;
+            this.errors = errors;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        public long getMean() { return mean; }
+        public long getP50() { return p50; }
+        public long getP95() { return p95; }
+        public long getP99() { return p99; }
+        public long getMax() { return max; }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.restaurantmanagement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of the menu shared by every screen. The menu is read from the database once;
+ * after that DatabaseHelper keeps it current on every add, update and delete, so browsing and
+ * switching categories never touch the database.
+ *
+ * Readers always see a complete, immutable snapshot. Changes build a new snapshot and swap it in.
+ * The search index is updated alongside, one item at a time (see {@link MenuSearchIndex}).
+ */
+public class MenuCatalog {
+
+    private static final MenuCatalog INSTANCE = new MenuCatalog();
+
+    private volatile Snapshot snapshot;
+    private final MenuSearchIndex searchIndex = new MenuSearchIndex();
+
+    public static MenuCatalog get() {
+        return INSTANCE;
+    }
+
+    // --- Queries ---
+
+    /** All menu items in id order, including the ones that are out of stock. */
+    public List<MenuItem> getAll() {
+        return snapshot().all;
+    }
+
+    public MenuItem getById(int id) {
+        return snapshot().byId.get(id);
+    }
+
+    /** Items whose category matches, ignoring case, as the category buttons always have. */
+    public List<MenuItem> getByCategory(String category) {
+        if (category == null) return Collections.emptyList();
+        List<MenuItem> items = snapshot().byCategory.get(category.toLowerCase(Locale.ROOT));
+        return items != null ? items : Collections.emptyList();
+    }
+
+    /** Distinct non-empty category names, sorted. */
+    public List<String> getCategories() {
+        return snapshot().categories;
+    }
+
+    /**
+     * Up to limit items matching the search text, best match first, among those the filter
+     * accepts (null for all). Words may be typed partly: "chi bur" finds "Chicken Burger".
+     */
+    public List<MenuItem> search(String query, Predicate<MenuItem> filter, int limit) {
+        snapshot(); // Loads the menu, and so the index, on first use
+        return searchIndex.search(query, filter, limit);
+    }
+
+    // --- Updates ---
+
+    /** Re-reads the whole menu from the database. */
+    public synchronized void reload() {
+        snapshot = new Snapshot(DatabaseHelper.getAllMenuItems());
+        searchIndex.rebuild(snapshot.all);
+    }
+
+    /** Adds the item, or replaces the item with the same id. */
+    public synchronized void put(MenuItem item) {
+        if (snapshot == null) return; // Not loaded yet; the first read will pick it up.
+        Map<Integer, MenuItem> items = new LinkedHashMap<>(snapshot.byId);
+        MenuItem copy = copyOf(item);
+        items.put(item.getId(), copy);
+        snapshot = new Snapshot(new ArrayList<>(items.values()));
+        searchIndex.put(copy);
+    }
+
+    public synchronized void remove(int id) {
+        if (snapshot == null || !snapshot.byId.containsKey(id)) return;
+        Map<Integer, MenuItem> items = new LinkedHashMap<>(snapshot.byId);
+        items.remove(id);
+        snapshot = new Snapshot(new ArrayList<>(items.values()));
+        searchIndex.remove(id);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) reload();
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static MenuItem copyOf(MenuItem item) {
+        return new MenuItem(item.getId(), item.getName(), item.getCategory(), item.getPrice(),
+                item.getStatus(), item.getDescription(), item.getImagePath());
+    }
+
+    private static final class Snapshot {
+        final List<MenuItem> all;
+        final Map<Integer, MenuItem> byId;
+        final Map<String, List<MenuItem>> byCategory;
+        final List<String> categories;
+
+        Snapshot(List<MenuItem> items) {
+            items.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+            Map<Integer, MenuItem> ids = new LinkedHashMap<>();
+            Map<String, List<MenuItem>> groups = new LinkedHashMap<>();
+            TreeSet<String> names = new TreeSet<>();
+            for (MenuItem item : items) {
+                ids.put(item.getId(), item);
+                String category = item.getCategory();
+                if (category != null && !category.isEmpty()) {
+                    names.add(category);
+                    groups.computeIfAbsent(category.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(item);
+                }
+            }
+            groups.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+            this.all = Collections.unmodifiableList(items);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byCategory = Collections.unmodifiableMap(groups);
+            this.categories = Collections.unmodifiableList(new ArrayList<>(names));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.restaurantmanagement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk menu import: how many rows were read, added, updated and rejected, and why
+ * rows were rejected. Only the first MAX_ERRORS reasons are kept, so a file full of bad rows
+ * cannot fill memory. If the import stopped early (an unreadable file or a failed write), the
+ * reason is in getStoppedBy; rows written before that stay written.
+ */
+public class MenuImportResult {
+    public static final int MAX_ERRORS = 100;
+
+    private long rows;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private final List<String> errors = new ArrayList<>();
+    private String stoppedBy;
+
+    void countRow() { rows++; }
+    void countInserted(long count) { inserted += count; }
+    void countUpdated(long count) { updated += count; }
+
+    void reject(long line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) errors.add("Line " + line + ": " + reason);
+    }
+
+    void stop(String reason) { stoppedBy = reason; }
+
+    public long getRows() { return rows; }
+    public long getInserted() { return inserted; }
+    public long getUpdated() { return updated; }
+    public long getRejected() { return rejected; }
+    public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+    public String getStoppedBy() { return stoppedBy; }
+    public boolean isComplete() { return stoppedBy == null; }
+
+    public String summary() {
+        String counts = String.format("%,d rows: %,d added, %,d updated, %,d rejected", rows, inserted, updated, rejected);
+        return isComplete() ? counts : counts + ". Stopped early: " + stoppedBy;
+    }
+}
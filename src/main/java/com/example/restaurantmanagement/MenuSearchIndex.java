@@ -0,0 +1,235 @@
+package com.example.restaurantmanagement;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the menu's names, categories and descriptions, for type-ahead search.
+ *
+ * Words are lower-cased and stripped of accents, so "creme" finds "Crème brûlée". Every word of
+ * a query must match the start of some word of the item ("chi bur" finds "Chicken Burger"), and
+ * results are ranked by how rare the matched words are, which field they are in (name, then
+ * category, then description), how completely they are typed, and whether the name starts with
+ * the query.
+ *
+ * Items are numbered densely and every word's postings are plain arrays, so even a one-letter
+ * prefix over a large menu is a few array scans. Adding, changing or removing an item touches
+ * only that item's words. All methods are thread-safe.
+ */
+public class MenuSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float MAX_TERM_WEIGHT = 6f;
+    private static final float NAME_PREFIX_BONUS = 2f;
+
+    // Postings of one word: the items it occurs in and how strongly.
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    size--;
+                    docs[i] = docs[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Integer, Integer> docById = new HashMap<>();
+    private MenuItem[] items = new MenuItem[16];
+    private String[][] docTerms = new String[16][];
+    private String[] foldedNames = new String[16];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int maxDoc;
+
+    // Scratch space for search, indexed by doc. A stamp marks which entries the current query has set.
+    private float[] tokenScores = new float[16];
+    private int[] tokenStamps = new int[16];
+    private float[] totalScores = new float[16];
+    private int[] matchedTokens = new int[16];
+    private int[] queryStamps = new int[16];
+    private int stamp;
+
+    public synchronized void rebuild(Collection<MenuItem> menu) {
+        terms.clear();
+        docById.clear();
+        Arrays.fill(items, null);
+        freeCount = 0;
+        maxDoc = 0;
+        for (MenuItem item : menu) {
+            put(item);
+        }
+    }
+
+    /** Indexes the item, replacing the item with the same id. */
+    public synchronized void put(MenuItem item) {
+        remove(item.getId());
+        int doc = freeCount > 0 ? freeDocs[--freeCount] : maxDoc++;
+        ensureCapacity(doc + 1);
+
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addField(weights, item.getName(), NAME_WEIGHT);
+        addField(weights, item.getCategory(), CATEGORY_WEIGHT);
+        addField(weights, item.getDescription(), DESCRIPTION_WEIGHT);
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, Math.min(entry.getValue(), MAX_TERM_WEIGHT));
+        }
+
+        items[doc] = item;
+        docTerms[doc] = weights.keySet().toArray(new String[0]);
+        foldedNames[doc] = fold(item.getName());
+        docById.put(item.getId(), doc);
+    }
+
+    public synchronized void remove(int id) {
+        Integer doc = docById.remove(id);
+        if (doc == null) return;
+        for (String term : docTerms[doc]) {
+            Postings postings = terms.get(term);
+            postings.remove(doc);
+            if (postings.size == 0) terms.remove(term);
+        }
+        items[doc] = null;
+        docTerms[doc] = null;
+        foldedNames[doc] = null;
+        if (freeCount == freeDocs.length) freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        freeDocs[freeCount++] = doc;
+    }
+
+    public synchronized int size() {
+        return docById.size();
+    }
+
+    /**
+     * The best matches for the query, best first, among the items the filter accepts (null for
+     * all). An empty query matches nothing.
+     */
+    public synchronized List<MenuItem> search(String query, Predicate<MenuItem> filter, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit <= 0) return new ArrayList<>();
+        int queryStamp = ++stamp;
+        int docCount = docById.size();
+
+        for (int t = 0; t < tokens.length; t++) {
+            String token = tokens[t];
+            int tokenStamp = ++stamp;
+            SortedMap<String, Postings> matches = terms.subMap(token, token + Character.MAX_VALUE);
+            for (Map.Entry<String, Postings> entry : matches.entrySet()) {
+                Postings postings = entry.getValue();
+                // Rare words count for more; a word typed out in full beats one that is only begun.
+                float idf = (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+                float completeness = entry.getKey().length() == token.length()
+                        ? 1f : 0.4f + 0.4f * token.length() / entry.getKey().length();
+                float factor = idf * completeness;
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    float score = factor * postings.weights[i];
+                    if (tokenStamps[doc] == tokenStamp) {
+                        // Another word of the item matches too; only the best one counts.
+                        if (score > tokenScores[doc]) {
+                            totalScores[doc] += score - tokenScores[doc];
+                            tokenScores[doc] = score;
+                        }
+                        continue;
+                    }
+                    // Every earlier word of the query must have matched this item too.
+                    if (t > 0 && (queryStamps[doc] != queryStamp || matchedTokens[doc] != t)) continue;
+                    if (t == 0) {
+                        queryStamps[doc] = queryStamp;
+                        totalScores[doc] = 0;
+                        matchedTokens[doc] = 0;
+                    }
+                    tokenStamps[doc] = tokenStamp;
+                    tokenScores[doc] = score;
+                    totalScores[doc] += score;
+                    matchedTokens[doc]++;
+                }
+            }
+        }
+
+        String folded = String.join(" ", tokens);
+        Comparator<Integer> worstFirst = Comparator.<Integer>comparingDouble(doc -> totalScores[doc])
+                .thenComparing(doc -> foldedNames[doc], Comparator.reverseOrder());
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, worstFirst);
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (queryStamps[doc] != queryStamp || matchedTokens[doc] != tokens.length) continue;
+            if (filter != null && !filter.test(items[doc])) continue;
+            if (foldedNames[doc].startsWith(folded)) totalScores[doc] += NAME_PREFIX_BONUS;
+            best.add(doc);
+            if (best.size() > limit) best.poll();
+        }
+
+        MenuItem[] results = new MenuItem[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = items[best.poll()];
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    /** Lower-cased, accent-free words of the text. */
+    static String[] tokenize(String text) {
+        String folded = fold(text);
+        if (folded.isEmpty()) return new String[0];
+        return Arrays.stream(NON_WORD.split(folded)).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String fold(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private void ensureCapacity(int docs) {
+        if (docs <= items.length) return;
+        int capacity = Math.max(docs, items.length * 2);
+        items = Arrays.copyOf(items, capacity);
+        docTerms = Arrays.copyOf(docTerms, capacity);
+        foldedNames = Arrays.copyOf(foldedNames, capacity);
+        tokenScores = Arrays.copyOf(tokenScores, capacity);
+        tokenStamps = Arrays.copyOf(tokenStamps, capacity);
+        totalScores = Arrays.copyOf(totalScores, capacity);
+        matchedTokens = Arrays.copyOf(matchedTokens, capacity);
+        queryStamps = Arrays.copyOf(queryStamps, capacity);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.restaurantmanagement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms for every timed operation, by name: "db.&lt;method&gt;" for DatabaseHelper
+ * calls, "view.&lt;fxml file&gt;" for view loads, "image.decode" and "image.rendition" for images.
+ * The admin dashboard's Performance view shows them; {@link #export} writes them to a file.
+ */
+public class Metrics {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+        return histogram != null ? histogram : HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /** Records a call to the named operation that started at startNanos (from System.nanoTime). */
+    public static void record(String name, long startNanos, boolean failed) {
+        histogram(name).record(System.nanoTime() - startNanos, failed);
+    }
+
+    /** Every operation recorded so far, sorted by name. */
+    public static List<LatencyHistogram.Snapshot> snapshot() {
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>();
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            snapshots.add(histogram.snapshot());
+        }
+        snapshots.sort(Comparator.comparing(LatencyHistogram.Snapshot::getName));
+        return snapshots;
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /** Writes the current snapshot as a table, times in milliseconds. */
+    public static void export(Path file) throws IOException {
+        List<LatencyHistogram.Snapshot> snapshots = snapshot();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Latency snapshot, " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + System.lineSeparator());
+            out.write(String.format("%-40s %10s %8s %10s %10s %10s %10s %10s%n",
+                    "operation", "calls", "errors", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (LatencyHistogram.Snapshot s : snapshots) {
+                out.write(String.format("%-40s %10d %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                        s.getName(), s.getCount(), s.getErrors(), millis(s.getMean()), millis(s.getP50()),
+                        millis(s.getP95()), millis(s.getP99()), millis(s.getMax())));
+            }
+        }
+    }
+
+    public static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
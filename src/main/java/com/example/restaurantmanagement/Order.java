@@ -9,6 +9,7 @@ public class Order {
     private double totalPrice;
     private final String orderDate;
     private String status;
+    private long changeSeq; // Position in the order change log when this copy was read; 0 if unknown
 
     // User details
     private final String userName;
@@ -40,6 +41,7 @@ public class Order {
     public String getUserName() { return userName; }
     public String getUserMobile() { return userMobile; }
     public String getUserAddress() { return userAddress; }
+    public long getChangeSeq() { return changeSeq; }
 
     // Setters for grouped data
     public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
@@ -47,4 +49,5 @@ public class Order {
     public void setQuantity(int quantity) { this.quantity = quantity; }
     public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
     public void setStatus(String status) { this.status = status; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
 }
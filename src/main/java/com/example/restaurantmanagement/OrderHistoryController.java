@@ -1,16 +1,52 @@
 package com.example.restaurantmanagement;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Insets;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 
 import java.util.List;
 
 public class OrderHistoryController {
 
-    @FXML private ListView<String> orderHistoryListView;
+    @FXML private ListView<OrderSummary> orderHistoryListView;
+    @FXML private ComboBox<String> historyStatusFilter;
+    @FXML private ComboBox<String> historySortOrder;
+    @FXML private ProgressIndicator loadingIndicator;
+
+    // Orders are read a page at a time as the customer scrolls, so the screen opens instantly
+    // however long their history is.
+    private static final int HISTORY_PAGE_SIZE = 30;
+    private static final String NEWEST_FIRST = "Newest first";
+    private static final String OLDEST_FIRST = "Oldest first";
+
+    private final ObservableList<OrderSummary> historyItems = FXCollections.observableArrayList();
+    private boolean hasMoreHistory = false;
+    private boolean loadingHistory = false;
 
     private UserDashboard dashboardController;
+    private ViewTasks tasks;
+
+    @FXML
+    public void initialize() {
+        tasks = new ViewTasks(orderHistoryListView, loadingIndicator);
+        orderHistoryListView.setItems(historyItems);
+        orderHistoryListView.setCellFactory(lv -> new OrderSummaryCell());
+
+        historyStatusFilter.setItems(FXCollections.observableArrayList("All", "Pending", "Accepted", "Removed"));
+        historyStatusFilter.setValue("All");
+        historySortOrder.setItems(FXCollections.observableArrayList(NEWEST_FIRST, OLDEST_FIRST));
+        historySortOrder.setValue(NEWEST_FIRST);
+        historyStatusFilter.valueProperty().addListener((obs, oldV, newV) -> refreshOrderHistory());
+        historySortOrder.valueProperty().addListener((obs, oldV, newV) -> refreshOrderHistory());
+    }
 
     public void initData(UserDashboard dashboardController) {
         this.dashboardController = dashboardController;
@@ -18,14 +54,73 @@ public class OrderHistoryController {
     }
 
     private void refreshOrderHistory() {
-        if (orderHistoryListView == null) return;
-        // This method now returns a List of formatted strings including the status
-        List<String> history = DatabaseHelper.getOrderHistory(dashboardController.getCurrentUserEmail());
-        orderHistoryListView.setItems(FXCollections.observableArrayList(history));
+        if (dashboardController == null) return;
+        // A page still loading for the old filter must not be appended to the new list.
+        tasks.cancelAll();
+        loadingHistory = false;
+        historyItems.clear();
+        hasMoreHistory = true;
+        loadMoreHistory();
+        orderHistoryListView.scrollTo(0);
+    }
+
+    // Called by the cells as the customer scrolls near the end of what has been loaded so far.
+    private void loadMoreHistory() {
+        if (!hasMoreHistory || loadingHistory) return;
+        loadingHistory = true;
+        String email = dashboardController.getCurrentUserEmail();
+        String status = "All".equals(historyStatusFilter.getValue()) ? null : historyStatusFilter.getValue();
+        boolean newestFirst = !OLDEST_FIRST.equals(historySortOrder.getValue());
+        OrderSummary last = historyItems.isEmpty() ? null : historyItems.get(historyItems.size() - 1);
+        String afterDate = last == null ? null : last.getOrderDate();
+        int afterId = last == null ? 0 : last.getId();
+
+        tasks.run(() -> DatabaseHelper.getOrderHistoryPage(email, status, newestFirst, afterDate, afterId, HISTORY_PAGE_SIZE),
+                (List<OrderSummary> page) -> {
+                    historyItems.addAll(page);
+                    hasMoreHistory = page.size() == HISTORY_PAGE_SIZE;
+                    loadingHistory = false;
+                }, error -> loadingHistory = false);
     }
 
     @FXML
     protected void onBackClick() {
         dashboardController.onViewMenuClick();
     }
+
+    private class OrderSummaryCell extends ListCell<OrderSummary> {
+        private final VBox card = new VBox(4);
+        private final Label headerLabel = new Label();
+        private final Label linesLabel = new Label();
+        private final Label totalLabel = new Label();
+
+        OrderSummaryCell() {
+            card.setPadding(new Insets(6));
+            headerLabel.setStyle("-fx-font-weight: bold;");
+            card.getChildren().addAll(headerLabel, linesLabel, totalLabel);
+        }
+
+        @Override
+        protected void updateItem(OrderSummary order, boolean empty) {
+            super.updateItem(order, empty);
+            if (empty || order == null) {
+                setGraphic(null);
+                return;
+            }
+            String tx = order.getTransactionId();
+            headerLabel.setText(order.getOrderDate() + "  |  Order " + (tx.length() > 8 ? tx.substring(0, 8) + "..." : tx) + "  [" + order.getStatus() + "]");
+            StringBuilder lines = new StringBuilder();
+            for (OrderLine line : order.getLines()) {
+                if (lines.length() > 0) lines.append("\n");
+                lines.append("  - ").append(line);
+            }
+            linesLabel.setText(lines.toString());
+            totalLabel.setText(String.format("Total: $%.2f (%d item%s)", order.getTotalPrice(), order.getItemCount(), order.getItemCount() == 1 ? "" : "s"));
+            setGraphic(card);
+
+            if (hasMoreHistory && getIndex() >= historyItems.size() - 5) {
+                Platform.runLater(OrderHistoryController.this::loadMoreHistory);
+            }
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.restaurantmanagement;
+
+public class OrderLine {
+    private final long id; // 0 until the line is saved
+    private final int menuItemId; // 0 when the item is unknown or has been deleted
+    private final String itemName; // Name at the time of ordering
+    private final int quantity;
+    private final double lineTotal;
+
+    public OrderLine(int menuItemId, String itemName, int quantity, double lineTotal) {
+        this(0, menuItemId, itemName, quantity, lineTotal);
+    }
+
+    public OrderLine(long id, int menuItemId, String itemName, int quantity, double lineTotal) {
+        this.id = id;
+        this.menuItemId = menuItemId;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.lineTotal = lineTotal;
+    }
+
+    public static OrderLine fromCartItem(CartItem cartItem) {
+        return new OrderLine(cartItem.getItem().getId(), cartItem.getItem().getName(), cartItem.getQuantity(), cartItem.getTotalPrice());
+    }
+
+    public long getId() { return id; }
+    public int getMenuItemId() { return menuItemId; }
+    public String getItemName() { return itemName; }
+    public int getQuantity() { return quantity; }
+    public double getLineTotal() { return lineTotal; }
+
+    @Override
+    public String toString() {
+        return String.format("%s x%d - $%.2f", itemName, quantity, lineTotal);
+    }
+}
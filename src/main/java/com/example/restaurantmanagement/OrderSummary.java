@@ -0,0 +1,33 @@
+package com.example.restaurantmanagement;
+
+import java.util.Collections;
+import java.util.List;
+
+/** One placed order (one transaction) as the customer sees it in their history. */
+public class OrderSummary {
+    private final int id;
+    private final String transactionId;
+    private final String status;
+    private final double totalPrice;
+    private final int itemCount;
+    private final String orderDate;
+    private final List<OrderLine> lines;
+
+    public OrderSummary(int id, String transactionId, String status, double totalPrice, int itemCount, String orderDate, List<OrderLine> lines) {
+        this.id = id;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.itemCount = itemCount;
+        this.orderDate = orderDate;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    public int getId() { return id; }
+    public String getTransactionId() { return transactionId; }
+    public String getStatus() { return status; }
+    public double getTotalPrice() { return totalPrice; }
+    public int getItemCount() { return itemCount; }
+    public String getOrderDate() { return orderDate; }
+    public List<OrderLine> getLines() { return lines; }
+}
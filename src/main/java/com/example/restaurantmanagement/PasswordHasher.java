@@ -0,0 +1,204 @@
+package com.example.restaurantmanagement;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords with salted PBKDF2-HMAC-SHA256 on a small, bounded pool of worker
+ * threads, so a burst of logins can never take over every CPU (or the database workers) and the
+ * cost of a hash can be tuned without touching callers.
+ *
+ * Stored values look like pbkdf2$&lt;iterations&gt;$&lt;salt&gt;$&lt;hash&gt; (Base64). The
+ * iteration count is kept per row, so raising -Dauth.pbkdf2.iterations only affects new hashes;
+ * older ones are upgraded the next time their owner logs in. Two legacy forms are still
+ * recognised: the unsalted SHA-256 hex digest of early builds, and plain text. Background
+ * migration turns a SHA-256 digest into pbkdf2-sha256$... (PBKDF2 over that digest), so every
+ * row is salted long before its owner logs in again.
+ *
+ * Pool size: -Dauth.workers (default: half the processors, at least 1); queued requests beyond
+ * -Dauth.queue (default 256) are rejected instead of piling up.
+ */
+public class PasswordHasher {
+
+    public enum Result {
+        NO_MATCH,
+        MATCH,
+        /** The password is right but stored in an older or cheaper form; it should be hashed again. */
+        MATCH_NEEDS_REHASH
+    }
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String LEGACY_PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final PasswordHasher INSTANCE = new PasswordHasher(
+            Integer.getInteger("auth.pbkdf2.iterations", 310_000),
+            Integer.getInteger("auth.workers", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            Integer.getInteger("auth.queue", 256));
+
+    private final ThreadPoolExecutor workers;
+    private final SecureRandom random = new SecureRandom();
+    private volatile int iterations;
+    private volatile String dummyHash;
+
+    public PasswordHasher(int iterations, int workerCount, int queueCapacity) {
+        this.iterations = iterations;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hasher-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static PasswordHasher get() {
+        return INSTANCE;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /** Changes the cost of new hashes (the login benchmark compares several). */
+    void setIterations(int iterations) {
+        this.iterations = iterations;
+        this.dummyHash = null;
+    }
+
+    /**
+     * Hashes the password on a worker. Throws RejectedExecutionException straight away if the
+     * pool's queue is full.
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> encode(PREFIX, password, iterations), workers);
+    }
+
+    /** Hashes the password on a worker and waits for it. */
+    public String hash(String password) {
+        return join(hashAsync(password));
+    }
+
+    /**
+     * Checks the password against a stored value of any supported form, on a worker. A null
+     * stored value (no such user) is checked against a dummy hash, so unknown accounts take as
+     * long to reject as wrong passwords.
+     */
+    public CompletableFuture<Result> verifyAsync(String password, String stored) {
+        return CompletableFuture.supplyAsync(() -> verifyNow(password, stored), workers);
+    }
+
+    public Result verify(String password, String stored) {
+        return join(verifyAsync(password, stored));
+    }
+
+    /**
+     * A salted replacement for a stored legacy value whose password is not known (used by the
+     * background migration): plain text is hashed directly, a SHA-256 digest is wrapped.
+     * Returns null if the value is already in a PBKDF2 form.
+     */
+    public String upgradeLegacy(String stored) {
+        if (stored == null || stored.startsWith(PREFIX) || stored.startsWith(LEGACY_PREFIX)) return null;
+        return join(CompletableFuture.supplyAsync(() -> isSha256Hex(stored)
+                ? encode(LEGACY_PREFIX, stored, iterations)
+                : encode(PREFIX, stored, iterations), workers));
+    }
+
+    private Result verifyNow(String password, String stored) {
+        if (password == null) return Result.NO_MATCH;
+        if (stored == null) {
+            String dummy = dummyHash;
+            if (dummy == null) dummyHash = dummy = encode(PREFIX, "dummy-password", iterations);
+            matches(PREFIX, password, dummy);
+            return Result.NO_MATCH;
+        }
+        if (stored.startsWith(PREFIX)) {
+            if (!matches(PREFIX, password, stored)) return Result.NO_MATCH;
+            return iterationsOf(stored) < iterations ? Result.MATCH_NEEDS_REHASH : Result.MATCH;
+        }
+        if (stored.startsWith(LEGACY_PREFIX)) {
+            return matches(LEGACY_PREFIX, sha256Hex(password), stored) ? Result.MATCH_NEEDS_REHASH : Result.NO_MATCH;
+        }
+        String legacy = isSha256Hex(stored) ? sha256Hex(password) : password;
+        boolean equal = MessageDigest.isEqual(legacy.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        return equal ? Result.MATCH_NEEDS_REHASH : Result.NO_MATCH;
+    }
+
+    private String encode(String prefix, String secret, int cost) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return prefix + cost + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(pbkdf2(secret, salt, cost));
+    }
+
+    private static boolean matches(String prefix, String secret, String stored) {
+        String[] parts = stored.substring(prefix.length()).split("\\$");
+        if (parts.length != 3) return false;
+        try {
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] expected = base64.decode(parts[2]);
+            byte[] actual = pbkdf2(secret, base64.decode(parts[1]), Integer.parseInt(parts[0]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int iterationsOf(String stored) {
+        try {
+            return Integer.parseInt(stored.substring(PREFIX.length(), stored.indexOf('$', PREFIX.length())));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] pbkdf2(String secret, byte[] salt, int cost) {
+        PBEKeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, cost, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String sha256Hex(String password) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isSha256Hex(String value) {
+        return value.length() == 64 && value.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
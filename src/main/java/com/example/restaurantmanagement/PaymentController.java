@@ -2,11 +2,14 @@ package com.example.restaurantmanagement;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,6 +21,7 @@ public class PaymentController {
     @FXML private RadioButton cashRadio;
     @FXML private RadioButton cardRadio;
     @FXML private RadioButton onlineRadio;
+    @FXML private Button placeOrderButton;
 
     private UserDashboard dashboardController;
 
@@ -30,6 +34,7 @@ public class PaymentController {
         }
         paymentTotalLabel.setText(String.format("$%.2f", total));
         paymentStatusLabel.setText("");
+        paymentGroup.selectToggle(null);
     }
 
     @FXML
@@ -66,33 +71,35 @@ public class PaymentController {
         }
 
         String transactionId = UUID.randomUUID().toString();
-        boolean allSuccess = true;
+        String email = dashboardController.getCurrentUserEmail();
+        // The worker writes a copy; the cart itself is only touched on the FX thread.
+        List<CartItem> items = new ArrayList<>(dashboardController.getCart());
 
-        for (CartItem ci : dashboardController.getCart()) {
-            if (!DatabaseHelper.placeOrder(transactionId, dashboardController.getCurrentUserEmail(), ci.getItem().getName(), ci.getQuantity(), ci.getTotalPrice())) {
-                allSuccess = false;
-                // **FIX**: Break the loop on the first failure
-                break; 
-            }
-        }
+        paymentStatusLabel.setText("Placing order...");
+        paymentStatusLabel.setStyle("-fx-text-fill: gray;");
+        placeOrderButton.setDisable(true);
 
-        if (allSuccess) {
+        // All cart lines are written in one transaction: the order is saved completely or not at all.
+        AsyncDatabase.run(() -> {
+            if (!DatabaseHelper.placeOrderBatch(transactionId, email, items)) throw DatabaseHelper.failure();
+            return null;
+        }, done -> {
+            placeOrderButton.setDisable(false);
             dashboardController.getCart().clear();
-            
+            paymentStatusLabel.setText("");
+
             Alert success = new Alert(Alert.AlertType.INFORMATION);
             success.setTitle("Order Successful");
             success.setHeaderText(null);
             success.setContentText("Your order has been placed successfully via " + paymentMethod + "!");
             success.showAndWait();
-            
+
             dashboardController.onViewMenuClick();
-            
-        } else {
-            // **FIX**: Provide a specific error message
-            String error = DatabaseHelper.getLastError();
-            paymentStatusLabel.setText("Order failed: " + error);
+        }, error -> {
+            placeOrderButton.setDisable(false);
+            paymentStatusLabel.setText("Order failed: " + error.getMessage());
             paymentStatusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     @FXML
@@ -14,6 +14,12 @@ public class ProfileController {
 
     private UserDashboard dashboardController;
     private int currentUserId = -1;
+    private ViewTasks tasks;
+
+    @FXML
+    public void initialize() {
+        tasks = new ViewTasks(profileNameField, null);
+    }
 
     public void initData(UserDashboard dashboardController) {
         this.dashboardController = dashboardController;
@@ -21,7 +27,7 @@ public class ProfileController {
     }
 
     private void loadUserProfile() {
-        User user = DatabaseHelper.getUserByEmail(dashboardController.getCurrentUserEmail());
+        User user = dashboardController.getSession().getUser();
         if (user != null) {
             currentUserId = user.getId();
             profileNameField.setText(user.getName());
@@ -52,13 +58,19 @@ public class ProfileController {
             return;
         }
         
-        if (DatabaseHelper.updateUserProfile(currentUserId, newName, newMobile, newAddress)) {
+        profileStatusLabel.setText("Saving...");
+        profileStatusLabel.setStyle("-fx-text-fill: gray;");
+        UserSession session = dashboardController.getSession();
+        tasks.run(() -> {
+            if (!session.updateProfile(newName, newMobile, newAddress)) throw DatabaseHelper.failure();
+            return null;
+        }, done -> {
             profileStatusLabel.setText("Profile updated successfully!");
             profileStatusLabel.setStyle("-fx-text-fill: green;");
-        } else {
-            profileStatusLabel.setText("Update failed: " + DatabaseHelper.getLastError());
+        }, error -> {
+            profileStatusLabel.setText("Update failed: " + error.getMessage());
             profileStatusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     @FXML
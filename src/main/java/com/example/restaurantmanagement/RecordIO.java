@@ -0,0 +1,602 @@
+package com.example.restaurantmanagement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming readers and writers for the flat files admins import and export: CSV with a header
+ * row, or JSON (an array of flat objects, or one object per line). Records go through one at a
+ * time, so a file of any size is read or written in constant memory.
+ *
+ * The format follows the file name: ".csv" is CSV, ".json" a JSON array, ".jsonl" and ".ndjson"
+ * JSON Lines; a further ".gz" means gzip-compressed. Readers accept either JSON layout. Column
+ * names are matched without regard to case.
+ *
+ * Writers write to a ".part" file beside the target and only move it into place when finished,
+ * so a failed or abandoned export never leaves a file that looks complete.
+ */
+public class RecordIO {
+
+    public enum Format { CSV, JSON, JSON_LINES }
+
+    /** Told how far a long-running transfer has got; total is -1 when it is not known. */
+    public interface Progress {
+        void update(long done, long total);
+    }
+
+    public interface RecordReader extends Closeable {
+        /** The next record, or null at the end of the file. */
+        Record next() throws IOException;
+
+        /** Bytes of the file consumed so far. */
+        long bytesRead();
+    }
+
+    public interface RecordWriter extends Closeable {
+        /** Writes one record, values in the order of the columns the writer was opened with. */
+        void write(Object... values) throws IOException;
+
+        /** Completes the file and moves it into place. Closing without finishing discards it. */
+        void finish() throws IOException;
+    }
+
+    /** One record: its values by lower-cased column name and the line it starts on. */
+    public static final class Record {
+        private final Map<String, String> values;
+        private final long line;
+        private final String problem;
+
+        Record(Map<String, String> values, long line, String problem) {
+            this.values = values;
+            this.line = line;
+            this.problem = problem;
+        }
+
+        /** The trimmed value of the column, or null when it is missing or blank. */
+        public String get(String column) {
+            String value = values.get(column.toLowerCase(Locale.ROOT));
+            if (value == null) return null;
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        public long getLine() { return line; }
+
+        /** Why the record is unusable although the rest of the file can still be read, or null. */
+        public String getProblem() { return problem; }
+    }
+
+    private RecordIO() {
+    }
+
+    public static Format formatOf(Path file) throws IOException {
+        String name = baseName(file);
+        if (name.endsWith(".csv")) return Format.CSV;
+        if (name.endsWith(".json")) return Format.JSON;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return Format.JSON_LINES;
+        throw new IOException("Unsupported file type: " + file.getFileName() + " (expected .csv, .json, .jsonl or .ndjson, optionally .gz)");
+    }
+
+    public static boolean isGzip(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    // The lower-cased file name without a trailing ".gz".
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return isGzip(file) ? name.substring(0, name.length() - 3) : name;
+    }
+
+    public static RecordReader openReader(Path file) throws IOException {
+        Format format = formatOf(file);
+        // Bytes are counted before decompression, so progress compares with the file's size.
+        CountingInputStream counted = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        Reader reader = null;
+        try {
+            InputStream in = isGzip(file) ? new GZIPInputStream(counted, 1 << 16) : counted;
+            reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            return format == Format.CSV ? new CsvReader(reader, counted) : new JsonReader(reader, counted);
+        } catch (IOException | RuntimeException e) {
+            if (reader != null) reader.close();
+            else counted.close();
+            throw e;
+        }
+    }
+
+    public static RecordWriter openWriter(Path file, String... columns) throws IOException {
+        Format format = formatOf(file);
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        OutputStream stream = Files.newOutputStream(part);
+        Writer out = null;
+        try {
+            if (isGzip(file)) stream = new GZIPOutputStream(stream, 1 << 16);
+            out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+            return format == Format.CSV ? new CsvWriter(out, part, file, columns)
+                    : new JsonWriter(out, part, file, columns, format == Format.JSON_LINES);
+        } catch (IOException | RuntimeException e) {
+            if (out != null) out.close();
+            else stream.close();
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+
+    // --- Reading ---
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    // Buffered character input with one character of look-ahead and line counting.
+    private abstract static class CharInput implements RecordReader {
+        private final Reader reader;
+        private final CountingInputStream bytes;
+        private final char[] buffer = new char[8192];
+        private int pos;
+        private int limit;
+        long line = 1;
+
+        CharInput(Reader reader, CountingInputStream bytes) throws IOException {
+            this.reader = reader;
+            this.bytes = bytes;
+            if (peek() == '\uFEFF') read(); // Byte order mark
+        }
+
+        final int peek() throws IOException {
+            if (pos == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[pos];
+        }
+
+        final int read() throws IOException {
+            int c = peek();
+            if (c >= 0) {
+                pos++;
+                if (c == '\n') line++;
+            }
+            return c;
+        }
+
+        final IOException malformed(String message) {
+            return new IOException("Line " + line + ": " + message);
+        }
+
+        @Override
+        public long bytesRead() {
+            return bytes.count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // RFC 4180: fields separated by commas, optionally quoted, "" for a quote inside quotes,
+    // and quoted fields may span lines. The first row names the columns.
+    private static final class CsvReader extends CharInput {
+        private final String[] header;
+
+        CsvReader(Reader reader, CountingInputStream bytes) throws IOException {
+            super(reader, bytes);
+            List<String> names = readRow();
+            header = new String[names == null ? 0 : names.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+            }
+        }
+
+        @Override
+        public Record next() throws IOException {
+            while (true) {
+                long start = line;
+                List<String> fields = readRow();
+                if (fields == null) return null;
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue; // Blank line
+
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < Math.min(fields.size(), header.length); i++) {
+                    values.put(header[i], fields.get(i));
+                }
+                // Missing trailing fields are blank, as spreadsheets often write them; extra ones are an error.
+                String problem = fields.size() <= header.length ? null
+                        : "expected " + header.length + " fields but found " + fields.size();
+                return new Record(values, start, problem);
+            }
+        }
+
+        // The fields of the next row, or null at the end of the file.
+        private List<String> readRow() throws IOException {
+            if (peek() < 0) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == '"' && field.length() == 0) {
+                    long start = line;
+                    while (true) {
+                        int q = read();
+                        if (q < 0) {
+                            line = start;
+                            throw malformed("quoted field is never closed");
+                        }
+                        if (q == '"') {
+                            if (peek() != '"') break;
+                            read();
+                        }
+                        field.append((char) q);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c < 0) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '\r') {
+                    if (peek() == '\n') read();
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+    }
+
+    // A top-level array of objects, or objects one after another (JSON Lines). Values must be
+    // strings, numbers, booleans or null; a nested object or array spoils only its own record.
+    private static final class JsonReader extends CharInput {
+        private final boolean array;
+        private boolean first = true;
+        private boolean done;
+
+        JsonReader(Reader reader, CountingInputStream bytes) throws IOException {
+            super(reader, bytes);
+            skipWhitespace();
+            array = peek() == '[';
+            if (array) read();
+        }
+
+        @Override
+        public Record next() throws IOException {
+            if (done) return null;
+            skipWhitespace();
+            int c = peek();
+            if (array) {
+                if (c == ']') {
+                    read();
+                    done = true;
+                    return null;
+                }
+                if (!first) {
+                    expect(',');
+                    skipWhitespace();
+                }
+            } else if (c < 0) {
+                done = true;
+                return null;
+            }
+            if (array && peek() < 0) throw malformed("the array is never closed");
+            first = false;
+
+            long start = line;
+            expect('{');
+            Map<String, String> values = new LinkedHashMap<>();
+            String problem = null;
+            skipWhitespace();
+            if (peek() == '}') {
+                read();
+                return new Record(values, start, null);
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString().toLowerCase(Locale.ROOT);
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                c = peek();
+                if (c == '"') {
+                    values.put(key, readString());
+                } else if (c == '{' || c == '[') {
+                    skipNested();
+                    if (problem == null) problem = "\"" + key + "\" must be a plain value, not an object or array";
+                } else {
+                    values.put(key, readLiteral());
+                }
+                skipWhitespace();
+                c = read();
+                if (c == '}') break;
+                if (c != ',') throw malformed("expected ',' or '}' in an object");
+            }
+            return new Record(values, start, problem);
+        }
+
+        private void skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\n' || c == '\r') read();
+        }
+
+        private void expect(char expected) throws IOException {
+            int c = read();
+            if (c != expected) {
+                throw malformed("expected '" + expected + "' but found " + (c < 0 ? "the end of the file" : "'" + (char) c + "'"));
+            }
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0) throw malformed("string is never closed");
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append((char) c);
+                    continue;
+                }
+                int escape = read();
+                switch (escape) {
+                    case '"', '\\', '/' -> value.append((char) escape);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) throw malformed("bad \\u escape");
+                            code = code * 16 + digit;
+                        }
+                        value.append((char) code);
+                    }
+                    default -> throw malformed("bad escape in string");
+                }
+            }
+        }
+
+        // A number, true, false or null; numbers keep their text.
+        private String readLiteral() throws IOException {
+            StringBuilder text = new StringBuilder();
+            int c;
+            while ((c = peek()) >= 0 && (Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.')) {
+                text.append((char) read());
+            }
+            String literal = text.toString();
+            if (literal.equals("null")) return null;
+            if (literal.equals("true") || literal.equals("false")) return literal;
+            try {
+                new BigDecimal(literal);
+                return literal;
+            } catch (NumberFormatException e) {
+                throw malformed("unexpected value '" + literal + "'");
+            }
+        }
+
+        private void skipNested() throws IOException {
+            int depth = 0;
+            do {
+                int c = peek();
+                if (c < 0) throw malformed("object or array is never closed");
+                if (c == '"') {
+                    readString();
+                    continue;
+                }
+                read();
+                if (c == '{' || c == '[') depth++;
+                else if (c == '}' || c == ']') depth--;
+            } while (depth > 0);
+        }
+    }
+
+    // --- Writing ---
+
+    static String formatNumber(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            if (!Double.isFinite(d)) return null;
+            return BigDecimal.valueOf(d).stripTrailingZeros().toPlainString();
+        }
+        return number.toString();
+    }
+
+    // Writes to a ".part" file next to the target and moves it into place on finish().
+    private abstract static class FileRecordWriter implements RecordWriter {
+        final Writer out;
+        final int columns;
+        private final Path part;
+        private final Path target;
+        private boolean finished;
+
+        FileRecordWriter(Writer out, Path part, Path target, int columns) {
+            this.out = out;
+            this.part = part;
+            this.target = target;
+            this.columns = columns;
+        }
+
+        @Override
+        public final void write(Object... values) throws IOException {
+            if (values.length != columns) throw new IllegalArgumentException("Expected " + columns + " values, got " + values.length);
+            writeRecord(values);
+        }
+
+        abstract void writeRecord(Object[] values) throws IOException;
+
+        void writeEnd() throws IOException {
+        }
+
+        @Override
+        public final void finish() throws IOException {
+            writeEnd();
+            out.close();
+            try {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finished = true;
+        }
+
+        @Override
+        public final void close() throws IOException {
+            if (finished) return;
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private static final class CsvWriter extends FileRecordWriter {
+
+        CsvWriter(Writer out, Path part, Path target, String[] columns) throws IOException {
+            super(out, part, target, columns.length);
+            writeRecord(columns);
+        }
+
+        @Override
+        void writeRecord(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                Object value = values[i];
+                String text = value == null ? null : value instanceof Number n ? formatNumber(n) : value.toString();
+                if (text == null) continue;
+                if (needsQuotes(text)) {
+                    out.write('"');
+                    out.write(text.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(text);
+                }
+            }
+            out.write('\n');
+        }
+
+        private static boolean needsQuotes(String text) {
+            if (text.isEmpty()) return false;
+            if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1))) return true;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+    }
+
+    // One object per line: inside a JSON array, or on its own for JSON Lines.
+    private static final class JsonWriter extends FileRecordWriter {
+        private final String[] keys;
+        private final boolean lines;
+        private boolean first = true;
+
+        JsonWriter(Writer out, Path part, Path target, String[] columns, boolean lines) throws IOException {
+            super(out, part, target, columns.length);
+            this.keys = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                keys[i] = quote(columns[i]);
+            }
+            this.lines = lines;
+            if (!lines) out.write('[');
+        }
+
+        @Override
+        void writeRecord(Object[] values) throws IOException {
+            if (!lines) out.write(first ? "\n" : ",\n");
+            first = false;
+            out.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(keys[i]);
+                out.write(':');
+                Object value = values[i];
+                String number = value instanceof Number n ? formatNumber(n) : null;
+                if (value == null || (value instanceof Number && number == null)) out.write("null");
+                else if (number != null) out.write(number);
+                else if (value instanceof Boolean) out.write(value.toString());
+                else out.write(quote(value.toString()));
+            }
+            out.write('}');
+            if (lines) out.write('\n');
+        }
+
+        @Override
+        void writeEnd() throws IOException {
+            if (!lines) out.write(first ? "]\n" : "\n]\n");
+        }
+
+        private static String quote(String text) {
+            StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> quoted.append("\\\"");
+                    case '\\' -> quoted.append("\\\\");
+                    case '\n' -> quoted.append("\\n");
+                    case '\r' -> quoted.append("\\r");
+                    case '\t' -> quoted.append("\\t");
+                    default -> {
+                        if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+                        else quoted.append(c);
+                    }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.restaurantmanagement;
+
+/**
+ * Sales in one bucket of a report: an hour, a day, an item, a category or a status. Orders is
+ * only counted where the report is about whole orders; per-item and per-category figures count
+ * the quantity sold instead, since one order can span several of them. Per-item figures also
+ * carry the menu item's id, which reports take instead of the label to pick that item again.
+ */
+public class SalesFigure {
+    private final int id;
+    private final String label;
+    private final int orders;
+    private final int quantity;
+    private final double revenue;
+
+    public SalesFigure(String label, int orders, int quantity, double revenue) {
+        this(0, label, orders, quantity, revenue);
+    }
+
+    public SalesFigure(int id, String label, int orders, int quantity, double revenue) {
+        this.id = id;
+        this.label = label;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public int getId() { return id; }
+    public String getLabel() { return label; }
+    public int getOrders() { return orders; }
+    public int getQuantity() { return quantity; }
+    public double getRevenue() { return revenue; }
+}
@@ -0,0 +1,118 @@
+package com.example.restaurantmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps the sales rollup tables in step with the orders, so reports never read order_line.
+ *
+ * Every order line counts towards its hour and day, per item and per category, under the status
+ * its order currently has. Items are keyed by menu item id (0 for lines whose item has since been
+ * deleted, as in the order history), with the name they were last sold under kept for display; sales_hourly also counts the orders themselves. Buckets are UTC, like
+ * created_at. Placing an order adds its lines; a status change moves them from the old status to
+ * the new one. Both happen in the transaction that changes the order, the same way addRating
+ * keeps rating_summary, so the rollups are never ahead of or behind the orders.
+ */
+class SalesRollups {
+
+    static final String UNCATEGORISED = "Uncategorised";
+
+    private static final String HOUR = "strftime('%Y-%m-%d %H:00', h.created_at)";
+    private static final String DAY = "date(h.created_at)";
+    private static final String ITEM = "COALESCE(l.menu_item_id, 0)";
+    private static final String CATEGORY = "COALESCE(l.category, '" + UNCATEGORISED + "')";
+    private static final String LINES = " FROM order_line l JOIN order_header h ON h.id = l.order_id ";
+    private static final String FILTER = "{filter}";
+    private static final String ADD_AMOUNTS = "quantity = quantity + excluded.quantity, revenue = revenue + excluded.revenue";
+
+    // Parameters: status, sign, sign, then the filter's parameters.
+    private static final String[] LINE_ROLLUPS = {
+            "INSERT INTO sales_item_hourly(hour, menu_item_id, status, item_name, category, quantity, revenue) " +
+            "SELECT " + HOUR + ", " + ITEM + ", ?, l.item_name, " + CATEGORY + ", ? * l.quantity, ? * l.line_total" + LINES + FILTER + " " +
+            "ON CONFLICT(hour, menu_item_id, status) DO UPDATE SET item_name = excluded.item_name, " + ADD_AMOUNTS,
+            "INSERT INTO sales_item_daily(day, menu_item_id, status, item_name, category, quantity, revenue) " +
+            "SELECT " + DAY + ", " + ITEM + ", ?, l.item_name, " + CATEGORY + ", ? * l.quantity, ? * l.line_total" + LINES + FILTER + " " +
+            "ON CONFLICT(day, menu_item_id, status) DO UPDATE SET item_name = excluded.item_name, " + ADD_AMOUNTS,
+            "INSERT INTO sales_category_hourly(hour, category, status, quantity, revenue) " +
+            "SELECT " + HOUR + ", " + CATEGORY + ", ?, ? * l.quantity, ? * l.line_total" + LINES + FILTER + " " +
+            "ON CONFLICT(hour, category, status) DO UPDATE SET " + ADD_AMOUNTS,
+            "INSERT INTO sales_category_daily(day, category, status, quantity, revenue) " +
+            "SELECT " + DAY + ", " + CATEGORY + ", ?, ? * l.quantity, ? * l.line_total" + LINES + FILTER + " " +
+            "ON CONFLICT(day, category, status) DO UPDATE SET " + ADD_AMOUNTS
+    };
+
+    // Parameters: status, order count, sign, sign, then the filter's parameters.
+    private static final String ORDER_ROLLUP =
+            "INSERT INTO sales_hourly(hour, status, orders, quantity, revenue) " +
+            "SELECT " + HOUR + ", ?, ?, ? * SUM(l.quantity), ? * SUM(l.line_total)" + LINES + FILTER + " GROUP BY h.id " +
+            "ON CONFLICT(hour, status) DO UPDATE SET orders = orders + excluded.orders, " + ADD_AMOUNTS;
+
+    private static final String NEW_LINES = "WHERE l.order_id = ? AND l.id > ?";
+    private static final String ALL_LINES = "WHERE l.order_id = ?";
+
+    private SalesRollups() {
+    }
+
+    /**
+     * Counts the lines just added to an order (those with an id above afterLineId) under the
+     * order's status. newOrder says whether the order itself is new and should be counted too.
+     */
+    static void addLines(Connection conn, long orderId, long afterLineId, String status, boolean newOrder) throws SQLException {
+        apply(conn, NEW_LINES, status, 1, newOrder ? 1 : 0, orderId, afterLineId);
+    }
+
+    /** Moves every line of an order from one status to another. */
+    static void changeStatus(Connection conn, long orderId, String from, String to) throws SQLException {
+        if (from.equals(to)) return;
+        apply(conn, ALL_LINES, from, -1, -1, orderId);
+        apply(conn, ALL_LINES, to, 1, 1, orderId);
+    }
+
+    private static void apply(Connection conn, String filter, String status, int sign, int orders, long... filterArgs) throws SQLException {
+        for (String sql : LINE_ROLLUPS) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.replace(FILTER, filter))) {
+                pstmt.setString(1, status);
+                pstmt.setInt(2, sign);
+                pstmt.setInt(3, sign);
+                for (int i = 0; i < filterArgs.length; i++) pstmt.setLong(4 + i, filterArgs[i]);
+                pstmt.executeUpdate();
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ORDER_ROLLUP.replace(FILTER, filter))) {
+            pstmt.setString(1, status);
+            pstmt.setInt(2, orders);
+            pstmt.setInt(3, sign);
+            pstmt.setInt(4, sign);
+            for (int i = 0; i < filterArgs.length; i++) pstmt.setLong(5 + i, filterArgs[i]);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /** Recomputes every rollup from the orders (after a migration or a bulk load). */
+    static void rebuild(Connection conn) throws SQLException {
+        String status = "h.status";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM sales_item_hourly");
+            stmt.execute("DELETE FROM sales_item_daily");
+            stmt.execute("DELETE FROM sales_category_hourly");
+            stmt.execute("DELETE FROM sales_category_daily");
+            stmt.execute("DELETE FROM sales_hourly");
+
+            stmt.execute("INSERT INTO sales_item_hourly(hour, menu_item_id, status, item_name, category, quantity, revenue) " +
+                         "SELECT " + HOUR + ", " + ITEM + ", " + status + ", MAX(l.item_name), MIN(" + CATEGORY + "), SUM(l.quantity), SUM(l.line_total)" + LINES +
+                         "GROUP BY 1, 2, 3");
+            stmt.execute("INSERT INTO sales_item_daily(day, menu_item_id, status, item_name, category, quantity, revenue) " +
+                         "SELECT substr(hour, 1, 10), menu_item_id, status, MAX(item_name), MIN(category), SUM(quantity), SUM(revenue) FROM sales_item_hourly GROUP BY 1, 2, 3");
+            stmt.execute("INSERT INTO sales_category_hourly(hour, category, status, quantity, revenue) " +
+                         "SELECT " + HOUR + ", " + CATEGORY + ", " + status + ", SUM(l.quantity), SUM(l.line_total)" + LINES +
+                         "GROUP BY 1, 2, 3");
+            stmt.execute("INSERT INTO sales_category_daily(day, category, status, quantity, revenue) " +
+                         "SELECT substr(hour, 1, 10), category, status, SUM(quantity), SUM(revenue) FROM sales_category_hourly GROUP BY 1, 2, 3");
+            stmt.execute("INSERT INTO sales_hourly(hour, status, orders, quantity, revenue) " +
+                         "SELECT " + HOUR + ", " + status + ", COUNT(DISTINCT h.id), SUM(l.quantity), SUM(l.line_total)" + LINES +
+                         "GROUP BY 1, 2");
+        }
+    }
+}
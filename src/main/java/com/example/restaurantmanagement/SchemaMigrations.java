@@ -0,0 +1,224 @@
+package com.example.restaurantmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned schema changes. Each migration runs once, in its own transaction, and is recorded in
+ * the schema_version table; on an up-to-date database startup only reads the current version.
+ *
+ * New schema changes are added as a new step at the end of {@link #MIGRATIONS} - never edit a
+ * step that has already shipped.
+ */
+public class SchemaMigrations {
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        MIGRATIONS.add(new Migration(1, "Base tables", conn -> {
+            execute(conn,
+                    "CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, email TEXT NOT NULL UNIQUE, password TEXT NOT NULL, role TEXT DEFAULT 'User', mobile TEXT, address TEXT);",
+                    "CREATE TABLE IF NOT EXISTS menu_items (id INTEGER PRIMARY KEY AUTOINCREMENT, item_name TEXT NOT NULL, category TEXT, price REAL NOT NULL, status TEXT DEFAULT 'Available', description TEXT, image_path TEXT);",
+                    "CREATE TABLE IF NOT EXISTS orders (id INTEGER PRIMARY KEY AUTOINCREMENT, transaction_id TEXT NOT NULL, user_email TEXT NOT NULL, item_name TEXT NOT NULL, quantity INTEGER NOT NULL, total_price REAL NOT NULL, order_date TEXT DEFAULT CURRENT_TIMESTAMP, status TEXT DEFAULT 'Pending');",
+                    "CREATE TABLE IF NOT EXISTS ratings (id INTEGER PRIMARY KEY AUTOINCREMENT, user_email TEXT NOT NULL, item_name TEXT NOT NULL, rating INTEGER NOT NULL, UNIQUE(user_email, item_name));");
+
+            // Databases created by early builds are missing these columns.
+            addColumnIfMissing(conn, "users", "role", "TEXT DEFAULT 'User'");
+            addColumnIfMissing(conn, "users", "mobile", "TEXT");
+            addColumnIfMissing(conn, "users", "address", "TEXT");
+            addColumnIfMissing(conn, "orders", "transaction_id", "TEXT");
+            addColumnIfMissing(conn, "orders", "status", "TEXT DEFAULT 'Pending'");
+        }));
+
+        MIGRATIONS.add(new Migration(2, "Indexes for order, rating and menu lookups", conn -> execute(conn,
+                // getOrderHistory: WHERE user_email = ? ORDER BY order_date DESC
+                "CREATE INDEX IF NOT EXISTS idx_orders_user_date ON orders(user_email, order_date);",
+                // updateOrderStatusByTransaction and grouping by transaction
+                "CREATE INDEX IF NOT EXISTS idx_orders_transaction ON orders(transaction_id);",
+                // hasUserOrderedItem: WHERE user_email = ? AND item_name = ? AND status = 'Accepted'
+                "CREATE INDEX IF NOT EXISTS idx_orders_user_item_status ON orders(user_email, item_name, status);",
+                // Admin order lists filtered by status, newest first
+                "CREATE INDEX IF NOT EXISTS idx_orders_status_date ON orders(status, order_date);",
+                // getAverageRating: WHERE item_name = ?
+                "CREATE INDEX IF NOT EXISTS idx_ratings_item ON ratings(item_name);",
+                "CREATE INDEX IF NOT EXISTS idx_menu_items_category ON menu_items(category);")));
+
+        MIGRATIONS.add(new Migration(3, "Split orders into order_header and order_line", conn -> {
+            execute(conn,
+                    "CREATE TABLE order_header (id INTEGER PRIMARY KEY AUTOINCREMENT, transaction_id TEXT NOT NULL UNIQUE, user_email TEXT NOT NULL, status TEXT NOT NULL DEFAULT 'Pending', total_price REAL NOT NULL DEFAULT 0, item_count INTEGER NOT NULL DEFAULT 0, created_at TEXT DEFAULT CURRENT_TIMESTAMP, updated_at TEXT DEFAULT CURRENT_TIMESTAMP);",
+                    "CREATE TABLE order_line (id INTEGER PRIMARY KEY AUTOINCREMENT, order_id INTEGER NOT NULL REFERENCES order_header(id) ON DELETE CASCADE, menu_item_id INTEGER REFERENCES menu_items(id) ON DELETE SET NULL, item_name TEXT NOT NULL, quantity INTEGER NOT NULL, line_total REAL NOT NULL);",
+
+                    // One header per transaction; very old rows have no transaction id, so each becomes its own order.
+                    "INSERT INTO order_header(transaction_id, user_email, status, total_price, item_count, created_at, updated_at) " +
+                    "SELECT COALESCE(transaction_id, 'legacy-' || id) AS tx, MIN(user_email), COALESCE(MIN(status), 'Pending'), SUM(total_price), SUM(quantity), MIN(order_date), MAX(order_date) " +
+                    "FROM orders GROUP BY tx ORDER BY MIN(id);",
+                    "INSERT INTO order_line(order_id, menu_item_id, item_name, quantity, line_total) " +
+                    "SELECT h.id, (SELECT m.id FROM menu_items m WHERE m.item_name = o.item_name ORDER BY m.id LIMIT 1), o.item_name, o.quantity, o.total_price " +
+                    "FROM orders o JOIN order_header h ON h.transaction_id = COALESCE(o.transaction_id, 'legacy-' || o.id) ORDER BY o.id;",
+
+                    "DROP TABLE orders;",
+                    // Read-only view with the old row-per-line shape, for ad-hoc queries and reports.
+                    "CREATE VIEW orders AS SELECT l.id, h.transaction_id, h.user_email, l.item_name, l.quantity, l.line_total AS total_price, h.created_at AS order_date, h.status " +
+                    "FROM order_line l JOIN order_header h ON h.id = l.order_id;",
+
+                    "CREATE INDEX idx_order_header_user_date ON order_header(user_email, created_at);",
+                    "CREATE INDEX idx_order_header_status_date ON order_header(status, created_at);",
+                    "CREATE INDEX idx_order_line_order ON order_line(order_id);",
+                    "CREATE INDEX idx_order_line_menu_item ON order_line(menu_item_id);");
+        }));
+
+        MIGRATIONS.add(new Migration(4, "Index for paging all orders by date", conn -> execute(conn,
+                // The unfiltered admin order board pages on (created_at, id); status filters use idx_order_header_status_date.
+                "CREATE INDEX IF NOT EXISTS idx_order_header_date ON order_header(created_at);")));
+
+        MIGRATIONS.add(new Migration(5, "Key ratings by menu item id and add rating_summary", conn -> execute(conn,
+                "CREATE TABLE ratings_by_item (id INTEGER PRIMARY KEY AUTOINCREMENT, user_email TEXT NOT NULL, menu_item_id INTEGER NOT NULL REFERENCES menu_items(id) ON DELETE CASCADE, rating INTEGER NOT NULL, UNIQUE(user_email, menu_item_id));",
+                // Ratings whose item name no longer matches any menu item were already unreachable and are dropped.
+                "INSERT OR REPLACE INTO ratings_by_item(user_email, menu_item_id, rating) " +
+                "SELECT r.user_email, (SELECT m.id FROM menu_items m WHERE m.item_name = r.item_name ORDER BY m.id LIMIT 1) AS item_id, r.rating " +
+                "FROM ratings r WHERE item_id IS NOT NULL ORDER BY r.id;",
+                "DROP TABLE ratings;",
+                "ALTER TABLE ratings_by_item RENAME TO ratings;",
+
+                "CREATE TABLE rating_summary (menu_item_id INTEGER PRIMARY KEY REFERENCES menu_items(id) ON DELETE CASCADE, rating_sum INTEGER NOT NULL DEFAULT 0, rating_count INTEGER NOT NULL DEFAULT 0);",
+                "INSERT INTO rating_summary(menu_item_id, rating_sum, rating_count) SELECT menu_item_id, SUM(rating), COUNT(*) FROM ratings GROUP BY menu_item_id;")));
+
+        MIGRATIONS.add(new Migration(6, "Order change log for the live order feed", conn -> execute(conn,
+                // One row per order; every insert or update of the header moves it to a new, higher seq,
+                // so "everything that changed since seq N" is a range scan on the primary key.
+                "CREATE TABLE order_change (seq INTEGER PRIMARY KEY AUTOINCREMENT, order_id INTEGER NOT NULL UNIQUE REFERENCES order_header(id) ON DELETE CASCADE);",
+                "INSERT INTO order_change(order_id) SELECT id FROM order_header ORDER BY updated_at, id;",
+                // Delete, then insert: not INSERT OR REPLACE, whose conflict clause an upsert on
+                // order_header (ON CONFLICT DO UPDATE) would override, failing on the UNIQUE order_id.
+                "CREATE TRIGGER trg_order_header_insert AFTER INSERT ON order_header BEGIN " +
+                "DELETE FROM order_change WHERE order_id = NEW.id; INSERT INTO order_change(order_id) VALUES (NEW.id); END;",
+                "CREATE TRIGGER trg_order_header_update AFTER UPDATE ON order_header BEGIN " +
+                "DELETE FROM order_change WHERE order_id = NEW.id; INSERT INTO order_change(order_id) VALUES (NEW.id); END;")));
+
+        MIGRATIONS.add(new Migration(7, "Sales rollups per hour and day, item and category", conn -> {
+            execute(conn,
+                    // The category an item had when it was sold, so later menu edits do not rewrite past sales.
+                    "ALTER TABLE order_line ADD COLUMN category TEXT;",
+                    "UPDATE order_line SET category = (SELECT m.category FROM menu_items m WHERE m.id = order_line.menu_item_id);",
+
+                    "CREATE TABLE sales_hourly (hour TEXT NOT NULL, status TEXT NOT NULL, orders INTEGER NOT NULL, quantity INTEGER NOT NULL, revenue REAL NOT NULL, PRIMARY KEY(hour, status)) WITHOUT ROWID;",
+                    // Items are keyed by id, so two items sharing a name stay apart; the name is only shown.
+                    "CREATE TABLE sales_item_hourly (hour TEXT NOT NULL, menu_item_id INTEGER NOT NULL, status TEXT NOT NULL, item_name TEXT NOT NULL, category TEXT NOT NULL, quantity INTEGER NOT NULL, revenue REAL NOT NULL, PRIMARY KEY(hour, menu_item_id, status)) WITHOUT ROWID;",
+                    "CREATE TABLE sales_item_daily (day TEXT NOT NULL, menu_item_id INTEGER NOT NULL, status TEXT NOT NULL, item_name TEXT NOT NULL, category TEXT NOT NULL, quantity INTEGER NOT NULL, revenue REAL NOT NULL, PRIMARY KEY(day, menu_item_id, status)) WITHOUT ROWID;",
+                    "CREATE TABLE sales_category_hourly (hour TEXT NOT NULL, category TEXT NOT NULL, status TEXT NOT NULL, quantity INTEGER NOT NULL, revenue REAL NOT NULL, PRIMARY KEY(hour, category, status)) WITHOUT ROWID;",
+                    "CREATE TABLE sales_category_daily (day TEXT NOT NULL, category TEXT NOT NULL, status TEXT NOT NULL, quantity INTEGER NOT NULL, revenue REAL NOT NULL, PRIMARY KEY(day, category, status)) WITHOUT ROWID;");
+            SalesRollups.rebuild(conn);
+        }));
+
+        MIGRATIONS.add(new Migration(8, "Index menu items by name for bulk import", conn -> execute(conn,
+                // importMenuItems: rows without an id update the item with the same name
+                "CREATE INDEX IF NOT EXISTS idx_menu_items_name ON menu_items(item_name);")));
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Applies every migration newer than the recorded schema version.
+     * Returns the number of migrations applied.
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current >= latestVersion()) return 0;
+
+        if (current == 0 && !tableExists(conn, "schema_version")) {
+            execute(conn, "CREATE TABLE schema_version (version INTEGER PRIMARY KEY, description TEXT NOT NULL, applied_at TEXT DEFAULT CURRENT_TIMESTAMP);");
+        }
+
+        int applied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) continue;
+                try {
+                    migration.step.apply(conn);
+                    try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO schema_version(version, description) VALUES(?, ?)")) {
+                        pstmt.setInt(1, migration.version);
+                        pstmt.setString(2, migration.description);
+                        pstmt.executeUpdate();
+                    }
+                    conn.commit();
+                    applied++;
+                    System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration " + migration.version + " (" + migration.description + ") failed: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        if (!tableExists(conn, "schema_version")) return 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // --- Helpers for migration steps ---
+
+    private static void execute(Connection conn, String... statements) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        if (!columnExists(conn, table, column)) {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition + ";");
+        }
+    }
+}
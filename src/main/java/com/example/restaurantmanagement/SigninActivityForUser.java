@@ -1,8 +1,6 @@
 package com.example.restaurantmanagement;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.ProgressBar;
@@ -32,10 +30,11 @@ public class SigninActivityForUser {
             checkPasswordStrength(newValue);
         });
 
-        if (!DatabaseHelper.initializeDatabase()) {
-            statusLabel.setText("DB Init Failed: " + DatabaseHelper.getLastError());
+        // Started by UserLogin.start; this only waits for it.
+        AsyncDatabase.run(() -> UserLogin.databaseReady().join(), null, error -> {
+            statusLabel.setText("DB Init Failed: " + error.getMessage());
             statusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     private void checkPasswordStrength(String password) {
@@ -116,34 +115,41 @@ public class SigninActivityForUser {
             return;
         }
 
-        if (DatabaseHelper.registerUser(name, email, password, mobile, address)) {
+        statusLabel.setText("Registering...");
+        statusLabel.setStyle("-fx-text-fill: gray;");
+        AsyncDatabase.run(() -> {
+            if (!DatabaseHelper.registerUser(name, email, password, mobile, address)) throw DatabaseHelper.failure();
+            return null;
+        }, done -> {
             statusLabel.setText("Registration successful!");
             statusLabel.setStyle("-fx-text-fill: green;");
             clearFields();
-        } else {
-            String error = DatabaseHelper.getLastError();
-            if (error != null && error.contains("UNIQUE constraint failed")) {
+        }, error -> {
+            String message = error.getMessage();
+            if (message != null && message.contains("UNIQUE constraint failed")) {
                 statusLabel.setText("This email address is already registered.");
             } else {
-                statusLabel.setText("Registration failed: " + (error != null ? error : "Unknown database error."));
+                statusLabel.setText("Registration failed: " + (message != null ? message : "Unknown database error."));
             }
             statusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     @FXML
     protected void onBackButtonClick() {
         try {
-            Stage stage = (Stage) nameField.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(UserLogin.class.getResource("UserLogin.fxml"));
-            Scene scene = new Scene(fxmlLoader.load(), 400, 400);
-            stage.setTitle("Login - Restaurant Management");
-            stage.setScene(scene);
+            UserLogin.showLogin((Stage) nameField.getScene().getWindow());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /** The registration screen is reused; each visit starts with an empty form. */
+    void resetForm() {
+        clearFields();
+        statusLabel.setText("");
+    }
+
     private void clearFields() {
         nameField.clear();
         emailField.clear();
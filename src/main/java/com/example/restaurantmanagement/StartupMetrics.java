@@ -0,0 +1,51 @@
+package com.example.restaurantmanagement;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.time.Instant;
+
+/**
+ * Startup milestones, measured from the moment the JVM process started:
+ * first frame (the login window has been laid out for the first time) and interactive (the
+ * database is initialised, so logging in will not wait on it).
+ *
+ * With -Dstartup.exitWhenReady=true the app prints one STARTUP line once both are known and exits;
+ * StartupBenchmark, in the benchmarks module, launches it that way repeatedly.
+ */
+public class StartupMetrics {
+
+    private static final long PROCESS_START = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+
+    private static long firstFrameMillis = -1;
+    private static long interactiveMillis = -1;
+
+    /** Records the first frame of the scene (the next pulse after it is shown). */
+    public static void watchFirstFrame(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            record(true);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /** Records that the app is ready for input. May be called from any thread. */
+    public static void interactive() {
+        Platform.runLater(() -> record(false));
+    }
+
+    private static void record(boolean firstFrame) {
+        long elapsed = System.currentTimeMillis() - PROCESS_START;
+        if (firstFrame && firstFrameMillis < 0) firstFrameMillis = elapsed;
+        if (!firstFrame && interactiveMillis < 0) interactiveMillis = elapsed;
+        if (firstFrameMillis < 0 || interactiveMillis < 0) return;
+
+        System.out.println("Startup: first frame " + firstFrameMillis + " ms, interactive " + interactiveMillis + " ms");
+        if (Boolean.getBoolean("startup.exitWhenReady")) {
+            System.out.println("STARTUP " + firstFrameMillis + " " + interactiveMillis);
+            Platform.exit();
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.example.restaurantmanagement;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
@@ -15,11 +13,13 @@ public class UserDashboard {
 
     @FXML private StackPane contentArea;
 
-    private String currentUserEmail;
+    private UserSession session;
     private List<CartItem> cart = new ArrayList<>();
 
-    public void setCurrentUserEmail(String email) {
-        this.currentUserEmail = email;
+    public void setSession(UserSession session) {
+        this.session = session;
+        // The dashboard is reused across logins; a new user starts with an empty cart.
+        cart.clear();
         // Load default view after user is set
         onViewMenuClick();
     }
@@ -51,12 +51,9 @@ public class UserDashboard {
 
     @FXML
     protected void onLogoutClick() {
+        UserSession.end();
         try {
-            Stage stage = (Stage) contentArea.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(UserLogin.class.getResource("UserLogin.fxml"));
-            Scene scene = new Scene(fxmlLoader.load(), 400, 400);
-            stage.setTitle("Login - Restaurant Management");
-            stage.setScene(scene);
+            UserLogin.showLogin((Stage) contentArea.getScene().getWindow());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -64,11 +61,12 @@ public class UserDashboard {
 
     public void loadView(String fxmlFile) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlFile));
-            Node view = loader.load();
-            
-            // Pass data to the new controller
-            Object controller = loader.getController();
+            // Each view is parsed once; navigating back only re-initialises its data.
+            ViewRegistry.View<Object> loaded = ViewRegistry.get().view(fxmlFile);
+            Node view = loaded.getRoot();
+
+            // Pass data to the controller
+            Object controller = loaded.getController();
             if (controller instanceof ViewMenuController) {
                 ((ViewMenuController) controller).initData(this);
             } else if (controller instanceof CartController) {
@@ -91,17 +89,16 @@ public class UserDashboard {
     
     public void showItemDetail(MenuItem item) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("ItemDetail.fxml"));
-            Node view = loader.load();
-            ItemDetailController controller = loader.getController();
-            controller.initData(this, item);
-            contentArea.getChildren().setAll(view);
+            ViewRegistry.View<ItemDetailController> loaded = ViewRegistry.get().view("ItemDetail.fxml");
+            loaded.getController().initData(this, item);
+            contentArea.getChildren().setAll(loaded.getRoot());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     // --- Getters for shared data ---
-    public String getCurrentUserEmail() { return currentUserEmail; }
+    public String getCurrentUserEmail() { return session.getEmail(); }
+    public UserSession getSession() { return session; }
     public List<CartItem> getCart() { return cart; }
 }
@@ -1,9 +1,8 @@
 package com.example.restaurantmanagement;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
@@ -11,6 +10,7 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class UserLogin extends Application {
 
@@ -26,14 +26,67 @@ public class UserLogin extends Application {
     @FXML
     private Label statusLabel;
 
+    // Completes once the schema is migrated and the menu is cached, or fails with the reason it could
+    // not be. Already complete when the login screen is used without going through start() (e.g. from a benchmark).
+    private static volatile CompletableFuture<Void> databaseReady = CompletableFuture.completedFuture(null);
+    private boolean waitingForDatabase = false;
+
     @Override
     public void start(Stage stage) throws IOException {
-        DatabaseHelper.initializeDatabase(); // Initialize DB on startup
-        FXMLLoader fxmlLoader = new FXMLLoader(UserLogin.class.getResource("UserLogin.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 400, 400);
-        stage.setTitle("Login - Restaurant Management");
-        stage.setScene(scene);
+        // Show the window first; the database is initialised and warmed in parallel.
+        databaseReady = AsyncDatabase.supply(() -> {
+            if (!DatabaseHelper.initializeDatabase()) throw DatabaseHelper.failure();
+            MenuCatalog.get().getAll();
+            return null;
+        });
+        databaseReady.whenComplete((ready, error) -> StartupMetrics.interactive());
+        databaseReady.thenRun(UserLogin::startPasswordMigration);
+
+        showLogin(stage);
+        StartupMetrics.watchFirstFrame(stage.getScene());
         stage.show();
+        // Parse the customer screens while the user is typing their password.
+        ViewRegistry.get().prewarm("UserDashboard.fxml", "ViewMenu.fxml", "ItemDetail.fxml", "Cart.fxml",
+                "Payment.fxml", "OrderHistory.fxml", "Profile.fxml");
+    }
+
+    /** Salts any passwords still stored the old way, in the background, without holding up logins. */
+    private static void startPasswordMigration() {
+        Thread migration = new Thread(() -> {
+            int migrated = DatabaseHelper.migrateLegacyPasswords();
+            if (migrated > 0) System.out.println("Migrated " + migrated + " legacy password(s).");
+        }, "password-migration");
+        migration.setDaemon(true);
+        migration.setPriority(Thread.MIN_PRIORITY);
+        migration.start();
+    }
+
+    static CompletableFuture<Void> databaseReady() {
+        return databaseReady;
+    }
+
+    /** Shows the (reused) login screen with the password and status cleared. */
+    static void showLogin(Stage stage) throws IOException {
+        ViewRegistry.View<UserLogin> view = ViewRegistry.get().view("UserLogin.fxml");
+        view.getController().resetForm();
+        stage.setTitle("Login - Restaurant Management");
+        stage.setScene(ViewRegistry.get().scene("UserLogin.fxml", 400, 400));
+    }
+
+    private void resetForm() {
+        if (passwordField != null) passwordField.clear();
+        if (statusLabel != null) {
+            statusLabel.setText("");
+            statusLabel.setStyle("");
+        }
+    }
+
+    @Override
+    public void stop() {
+        AsyncDatabase.shutdown();
+        KitchenFeed.get().stop();
+        PasswordHasher.get().shutdown();
+        DatabaseHelper.shutdown();
     }
 
     @FXML
@@ -52,6 +105,26 @@ public class UserLogin extends Application {
             return;
         }
 
+        // A click that arrives before the database is ready is carried out once it is.
+        if (!databaseReady.isDone()) {
+            if (statusLabel != null) statusLabel.setText("Starting up...");
+            if (!waitingForDatabase) {
+                waitingForDatabase = true;
+                databaseReady.whenComplete((ready, error) -> Platform.runLater(() -> {
+                    waitingForDatabase = false;
+                    onLoginButtonClick();
+                }));
+            }
+            return;
+        }
+        if (databaseReady.isCompletedExceptionally()) {
+            if (statusLabel != null) {
+                statusLabel.setText("Database unavailable: " + databaseReady.exceptionNow().getMessage());
+                statusLabel.setStyle("-fx-text-fill: red;");
+            }
+            return;
+        }
+
         if ("Admin".equals(role)) {
             handleAdminLogin(email, password);
         } else if ("User".equals(role)) {
@@ -71,10 +144,10 @@ public class UserLogin extends Application {
                 stage = new Stage();
             }
 
-            FXMLLoader fxmlLoader = new FXMLLoader(SigninActivityForUser.class.getResource("SigninActivityForUser.fxml"));
-            Scene scene = new Scene(fxmlLoader.load(), 400, 400);
+            ViewRegistry.View<SigninActivityForUser> view = ViewRegistry.get().view("SigninActivityForUser.fxml");
+            view.getController().resetForm();
             stage.setTitle("Register - Restaurant Management");
-            stage.setScene(scene);
+            stage.setScene(ViewRegistry.get().scene("SigninActivityForUser.fxml", 400, 400));
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
@@ -89,10 +162,11 @@ public class UserLogin extends Application {
             }
             try {
                 Stage stage = (Stage) usernameField.getScene().getWindow();
-                FXMLLoader fxmlLoader = new FXMLLoader(AdminDashboard.class.getResource("AdminDashboard.fxml"));
-                Scene scene = new Scene(fxmlLoader.load(), 900, 600);
+                ViewRegistry.View<AdminDashboard> view = ViewRegistry.get().view("AdminDashboard.fxml");
+                // Reused across logins: start again on the menu with fresh data.
+                view.getController().onViewMenuClick();
                 stage.setTitle("Admin Dashboard - Restaurant Management");
-                stage.setScene(scene);
+                stage.setScene(ViewRegistry.get().scene("AdminDashboard.fxml", 900, 600));
             } catch (IOException ex) {
                 ex.printStackTrace();
             }
@@ -105,22 +179,30 @@ public class UserLogin extends Application {
     }
 
     private void handleUserLogin(String email, String password) {
-        if (DatabaseHelper.validateUser(email, password)) {
+        if (statusLabel != null) {
+            statusLabel.setText("Signing in...");
+            statusLabel.setStyle("-fx-text-fill: gray;");
+        }
+        AsyncDatabase.run(() -> DatabaseHelper.validateUser(email, password) ? UserSession.start(email) : null,
+                this::showUserDashboard,
+                error -> showUserDashboard(null));
+    }
+
+    private void showUserDashboard(UserSession session) {
+        if (session != null) {
             if (statusLabel != null) {
                 statusLabel.setText("User login successful!");
                 statusLabel.setStyle("-fx-text-fill: green;");
             }
             try {
                 Stage stage = (Stage) usernameField.getScene().getWindow();
-                FXMLLoader fxmlLoader = new FXMLLoader(UserDashboard.class.getResource("UserDashboard.fxml"));
-                Scene scene = new Scene(fxmlLoader.load(), 800, 600);
-                
-                // Pass the logged-in user's email to the dashboard controller
-                UserDashboard controller = fxmlLoader.getController();
-                controller.setCurrentUserEmail(email);
-                
+                ViewRegistry.View<UserDashboard> view = ViewRegistry.get().view("UserDashboard.fxml");
+
+                // Pass the logged-in user's session to the dashboard controller
+                view.getController().setSession(session);
+
                 stage.setTitle("User Dashboard - Restaurant Management");
-                stage.setScene(scene);
+                stage.setScene(ViewRegistry.get().scene("UserDashboard.fxml", 800, 600));
             } catch (IOException ex) {
                 ex.printStackTrace();
             }
@@ -0,0 +1,82 @@
+package com.example.restaurantmanagement;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything about the logged-in customer that the screens keep asking for: the user record,
+ * which menu items they may rate (items from accepted orders) and the ratings they already gave.
+ * Loaded once at login; ratings and profile changes made through the session keep it current.
+ */
+public class UserSession {
+
+    private static volatile UserSession current;
+
+    private final User user;
+    private final Set<Integer> rateableItemIds = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Integer> ratings = new ConcurrentHashMap<>();
+
+    private UserSession(User user) {
+        this.user = user;
+    }
+
+    /** Loads the session for a user who has just logged in. Returns null if the user does not exist. */
+    public static UserSession start(String email) {
+        User user = DatabaseHelper.getUserByEmail(email);
+        if (user == null) return null;
+        UserSession session = new UserSession(user);
+        session.ratings.putAll(DatabaseHelper.getUserRatings(email));
+        session.refreshRateableItems();
+        current = session;
+        return session;
+    }
+
+    public static UserSession current() {
+        return current;
+    }
+
+    public static void end() {
+        current = null;
+    }
+
+    public User getUser() { return user; }
+    public String getEmail() { return user.getEmail(); }
+
+    // --- Ratings ---
+
+    public boolean canRate(int menuItemId) {
+        return rateableItemIds.contains(menuItemId);
+    }
+
+    /** The user's rating for the item, or 0 if they have not rated it. */
+    public int getRating(int menuItemId) {
+        return ratings.getOrDefault(menuItemId, 0);
+    }
+
+    public boolean rate(int menuItemId, int rating) {
+        if (!DatabaseHelper.addRating(getEmail(), menuItemId, rating)) return false;
+        ratings.put(menuItemId, rating);
+        return true;
+    }
+
+    /**
+     * Re-reads which items the user may rate. Orders are accepted by the admin, possibly on
+     * another terminal, so the menu calls this when it is opened rather than on every detail view.
+     */
+    public void refreshRateableItems() {
+        Set<Integer> ids = DatabaseHelper.getRateableItemIds(getEmail());
+        rateableItemIds.retainAll(ids);
+        rateableItemIds.addAll(ids);
+    }
+
+    // --- Profile ---
+
+    public boolean updateProfile(String name, String mobile, String address) {
+        if (!DatabaseHelper.updateUserProfile(user.getId(), name, mobile, address)) return false;
+        user.setName(name);
+        user.setMobile(mobile);
+        user.setAddress(address);
+        return true;
+    }
+}
@@ -5,83 +5,128 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
-import javafx.scene.image.Image;
+import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
 
-import java.io.File;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 public class ViewMenuController {
 
     @FXML private HBox categoryBox;
+    @FXML private TextField searchField;
     @FXML private TilePane menuTilePane;
     @FXML private Label selectedItemLabel;
     @FXML private Spinner<Integer> quantitySpinner;
     @FXML private Label statusLabel;
+    @FXML private ProgressIndicator loadingIndicator;
 
     private UserDashboard dashboardController;
+    private ViewTasks tasks;
     private MenuItem selectedMenuItem;
     private String currentCategoryFilter = "All Items";
+    private Map<Integer, Double> averageRatings = new HashMap<>();
+    private boolean menuLoaded = false;
+
+    // Search results are ranked, so only the best ones are worth a card.
+    private static final int SEARCH_LIMIT = 60;
 
     public void initData(UserDashboard dashboardController) {
         this.dashboardController = dashboardController;
-        refreshMenu();
+        // The view is reused between visits; start each one without a selection.
+        selectedMenuItem = null;
+        selectedItemLabel.setText("None");
+        quantitySpinner.getValueFactory().setValue(0);
+        quantitySpinner.setDisable(true);
+        statusLabel.setText("");
+        menuLoaded = false;
+        searchField.clear();
+        UserSession session = dashboardController.getSession();
+        // One background round trip for the whole grid; category switches reuse the results.
+        tasks.run(() -> {
+            MenuCatalog.get().getAll();
+            session.refreshRateableItems();
+            return DatabaseHelper.getAllAverageRatings();
+        }, ratings -> {
+            averageRatings = ratings;
+            menuLoaded = true;
+            refreshMenu();
+        }, error -> {
+            statusLabel.setText("Failed to load the menu.");
+            statusLabel.setStyle("-fx-text-fill: red;");
+        });
     }
 
     @FXML
     public void initialize() {
+        tasks = new ViewTasks(menuTilePane, loadingIndicator);
         if (quantitySpinner != null) {
             quantitySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 20, 0));
             quantitySpinner.setDisable(true);
         }
+        if (searchField != null) {
+            // Searching runs on the in-memory index, fast enough to redo on every keystroke.
+            searchField.textProperty().addListener((obs, oldText, newText) -> {
+                if (menuLoaded) refreshMenu();
+            });
+        }
     }
 
     private void refreshMenu() {
         if (menuTilePane == null) return;
         
-        List<MenuItem> allItems = DatabaseHelper.getAllMenuItems();
-        allItems.removeIf(item -> !"Available".equalsIgnoreCase(item.getStatus()));
-        
-        setupCategories(allItems);
+        // Everything below works on the in-memory catalog; switching categories runs no SQL.
+        MenuCatalog catalog = MenuCatalog.get();
+        setupCategories(catalog.getAll());
         
+        String query = searchField == null ? "" : searchField.getText().trim();
+        boolean allCategories = "All Items".equals(currentCategoryFilter);
         List<MenuItem> displayedItems;
-        if ("All Items".equals(currentCategoryFilter)) {
-            displayedItems = allItems;
+        if (!query.isEmpty()) {
+            displayedItems = catalog.search(query, item -> isAvailable(item)
+                    && (allCategories || currentCategoryFilter.equalsIgnoreCase(item.getCategory())), SEARCH_LIMIT);
         } else {
-            displayedItems = allItems.stream()
-                    .filter(item -> currentCategoryFilter.equalsIgnoreCase(item.getCategory()))
-                    .collect(Collectors.toList());
+            displayedItems = allCategories ? catalog.getAll() : catalog.getByCategory(currentCategoryFilter);
         }
         
         menuTilePane.getChildren().clear();
         for (MenuItem item : displayedItems) {
+            if (!isAvailable(item)) continue;
             VBox card = createMenuItemCard(item);
             menuTilePane.getChildren().add(card);
         }
+        if (displayedItems.isEmpty() && !query.isEmpty()) {
+            Label none = new Label("No dishes match \"" + query + "\".");
+            none.setStyle("-fx-text-fill: gray;");
+            menuTilePane.getChildren().add(none);
+        }
+    }
+
+    private boolean isAvailable(MenuItem item) {
+        return "Available".equalsIgnoreCase(item.getStatus());
     }
 
     private void setupCategories(List<MenuItem> items) {
         if (categoryBox == null) return;
-        Set<String> categories = new HashSet<>();
-        categories.add("All Items");
+        Set<String> categories = new TreeSet<>();
         for (MenuItem item : items) {
-            if (item.getCategory() != null && !item.getCategory().isEmpty()) {
+            if (isAvailable(item) && item.getCategory() != null && !item.getCategory().isEmpty()) {
                 categories.add(item.getCategory());
             }
         }
         categoryBox.getChildren().clear();
         addCategoryButton("All Items");
-        categories.remove("All Items");
-        categories.stream().sorted().forEach(this::addCategoryButton);
+        categories.forEach(this::addCategoryButton);
     }
 
     private void addCategoryButton(String categoryName) {
@@ -109,12 +154,7 @@ public class ViewMenuController {
         imageView.setFitWidth(130);
         imageView.setFitHeight(100);
         imageView.setPreserveRatio(true);
-        if (item.getImagePath() != null && !item.getImagePath().isEmpty()) {
-            try {
-                File file = new File(item.getImagePath());
-                if (file.exists()) imageView.setImage(new Image(file.toURI().toString()));
-            } catch (Exception e) {}
-        }
+        ImageService.get().load(imageView, item.getImagePath(), 130, 100);
         
         Label nameLabel = new Label(item.getName());
         nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
@@ -122,8 +162,11 @@ public class ViewMenuController {
         categoryLabel.setStyle("-fx-text-fill: gray; -fx-font-size: 12px;");
         Label priceLabel = new Label("$" + item.getPrice());
         priceLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+        Double avgRating = averageRatings.get(item.getId());
+        Label ratingLabel = new Label(avgRating != null ? String.format("\u2605 %.1f", avgRating) : "No ratings yet");
+        ratingLabel.setStyle(avgRating != null ? "-fx-text-fill: goldenrod; -fx-font-weight: bold;" : "-fx-text-fill: gray; -fx-font-size: 11px;");
 
-        card.getChildren().addAll(imageView, nameLabel, categoryLabel, priceLabel);
+        card.getChildren().addAll(imageView, nameLabel, categoryLabel, priceLabel, ratingLabel);
         
         card.setOnMouseClicked(e -> {
             if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
@@ -0,0 +1,136 @@
+package com.example.restaurantmanagement;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parses each FXML file once and hands out the same root node and controller from then on.
+ * Navigating back to a screen only re-initialises its data (the controllers' initData), so
+ * switching between Menu, Cart, History and Profile no longer re-reads and re-builds the views.
+ *
+ * Views can be parsed ahead of time on a background thread with {@link #prewarm}; that is safe
+ * because nodes may be built off the FX thread until they are attached to a showing window.
+ * Set -Dui.viewCache=false to get a fresh FXMLLoader on every navigation again.
+ */
+public class ViewRegistry {
+
+    public static final class View<C> {
+        private final Parent root;
+        private final C controller;
+
+        View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() { return root; }
+        public C getController() { return controller; }
+    }
+
+    private static final ViewRegistry INSTANCE = new ViewRegistry();
+
+    private final Map<String, CompletableFuture<View<?>>> views = new ConcurrentHashMap<>();
+    private final Map<String, Scene> scenes = new ConcurrentHashMap<>();
+    private volatile boolean caching = Boolean.parseBoolean(System.getProperty("ui.viewCache", "true"));
+    private ExecutorService prewarmer;
+
+    public static ViewRegistry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * The view for the given FXML file (relative to this package). Loads it now if it has not
+     * been loaded yet; if it is being prewarmed, waits for that instead of parsing it twice.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> View<C> view(String fxmlFile) throws IOException {
+        if (!caching) return load(fxmlFile);
+        CompletableFuture<View<?>> future = views.get(fxmlFile);
+        if (future == null) {
+            CompletableFuture<View<?>> mine = new CompletableFuture<>();
+            future = views.putIfAbsent(fxmlFile, mine);
+            if (future == null) {
+                future = mine;
+                try {
+                    mine.complete(load(fxmlFile));
+                } catch (IOException | RuntimeException e) {
+                    views.remove(fxmlFile, mine);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return (View<C>) future.join();
+        } catch (CompletionException e) {
+            // A failed prewarm is retried here, on the caller's thread, so the real error surfaces.
+            views.remove(fxmlFile, future);
+            return view(fxmlFile);
+        }
+    }
+
+    /**
+     * A scene around the view, for top-level screens (login, dashboards). The same Scene is
+     * returned every time so its root never has to move between scenes.
+     */
+    public <C> Scene scene(String fxmlFile, double width, double height) throws IOException {
+        View<C> view = view(fxmlFile);
+        if (!caching) return new Scene(view.getRoot(), width, height);
+        return scenes.computeIfAbsent(fxmlFile, f -> new Scene(view.getRoot(), width, height));
+    }
+
+    /** Parses the given views on a background thread so the first visit to each is instant too. */
+    public synchronized void prewarm(String... fxmlFiles) {
+        if (!caching) return;
+        if (prewarmer == null) {
+            prewarmer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "view-prewarm");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        for (String fxmlFile : fxmlFiles) {
+            CompletableFuture<View<?>> future = new CompletableFuture<>();
+            if (views.putIfAbsent(fxmlFile, future) != null) continue;
+            prewarmer.execute(() -> {
+                try {
+                    future.complete(load(fxmlFile));
+                } catch (IOException e) {
+                    future.completeExceptionally(new UncheckedIOException(e));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+    }
+
+    /** Turns caching on or off and forgets everything loaded so far (the benchmark compares both). */
+    public void setCaching(boolean caching) {
+        this.caching = caching;
+        views.clear();
+        scenes.clear();
+    }
+
+    private static <C> View<C> load(String fxmlFile) throws IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            FXMLLoader loader = new FXMLLoader(ViewRegistry.class.getResource(fxmlFile));
+            Parent root = loader.load();
+            failed = false;
+            return new View<>(root, loader.getController());
+        } finally {
+            Metrics.record("view." + fxmlFile, start, failed);
+        }
+    }
+}
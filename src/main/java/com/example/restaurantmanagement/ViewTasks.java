@@ -0,0 +1,90 @@
+package com.example.restaurantmanagement;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Background database work belonging to one view. While anything is running the view's loading
+ * indicator is shown. When the view is left (removed from the scene or hidden) outstanding work
+ * is cancelled, so its results are never applied to a screen the user has moved away from.
+ *
+ * All methods must be called on the FX thread.
+ */
+public final class ViewTasks {
+
+    private final Node loadingIndicator;
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+    private int shown = 0; // Pending work that shows the loading indicator
+
+    public ViewTasks(Node view, Node loadingIndicator) {
+        this.loadingIndicator = loadingIndicator;
+        if (view != null) {
+            view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+                if (oldScene != null && newScene == null) cancelAll();
+            });
+            view.visibleProperty().addListener((obs, wasVisible, isVisible) -> {
+                if (wasVisible && !isVisible) cancelAll();
+            });
+        }
+        updateIndicator();
+    }
+
+    public <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess) {
+        return run(work, onSuccess, null);
+    }
+
+    public <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        return submit(work, onSuccess, onError, true);
+    }
+
+    /** Like run, but without the loading indicator: for periodic background refreshes. */
+    public <T> CompletableFuture<T> poll(Supplier<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        return submit(work, onSuccess, onError, false);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError, boolean showIndicator) {
+        CompletableFuture<T> future = AsyncDatabase.supply(work);
+        pending.add(future);
+        if (showIndicator) shown++;
+        updateIndicator();
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (pending.remove(future) && showIndicator) shown--;
+            updateIndicator();
+            if (future.isCancelled() || error instanceof CancellationException) return;
+            if (error != null) {
+                error.printStackTrace();
+                if (onError != null) onError.accept(error.getCause() != null ? error.getCause() : error);
+            } else if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    public boolean isBusy() {
+        return !pending.isEmpty();
+    }
+
+    public void cancelAll() {
+        for (CompletableFuture<?> future : new ArrayList<>(pending)) {
+            future.cancel(false);
+        }
+        pending.clear();
+        shown = 0;
+        updateIndicator();
+    }
+
+    private void updateIndicator() {
+        if (loadingIndicator == null) return;
+        boolean busy = shown > 0;
+        loadingIndicator.setVisible(busy);
+        loadingIndicator.setManaged(busy);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.restaurantmanagement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Funnels every database write through one thread. Callers submit a {@link Command} and get a
+ * future; the writer thread takes commands off the queue and commits them in groups of up to
+ * maxBatch commands, waiting at most maxDelayMillis for a group to fill. Under load many orders,
+ * ratings and status changes share one SQLite transaction (and one fsync) instead of each fighting
+ * for the write lock.
+ *
+ * Each command runs inside its own savepoint, so a command that fails is rolled back and reported
+ * to its caller without taking the rest of the group with it. Futures complete only after the
+ * group has committed.
+ */
+public class WriteQueue implements AutoCloseable {
+
+    /** A unit of write work. It runs on the writer thread and must not commit or roll back itself. */
+    public interface Command<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    public interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    private static final Pending<?> STOP = new Pending<>(null);
+
+    private final ConnectionSource source;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    private final AtomicLong committedCommands = new AtomicLong();
+    private final AtomicLong committedGroups = new AtomicLong();
+
+    public WriteQueue(ConnectionSource source, int maxBatch, long maxDelayMillis) {
+        this.source = source;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.writer = new Thread(this::drain, "db-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Group limits from db.writer.batchSize (default 64) and db.writer.maxDelayMs (default 2). */
+    public static WriteQueue fromSystemProperties(ConnectionSource source) {
+        return new WriteQueue(source,
+                Integer.getInteger("db.writer.batchSize", 64),
+                Long.getLong("db.writer.maxDelayMs", 2L));
+    }
+
+    public <T> CompletableFuture<T> submit(Command<T> command) {
+        Pending<T> pending = new Pending<>(command);
+        if (Thread.currentThread() == writer) {
+            // A command submitting another write would wait on itself.
+            pending.future.completeExceptionally(new SQLException("Writes cannot be queued from the writer thread"));
+        } else if (closed) {
+            pending.future.completeExceptionally(new SQLException("Write queue is closed"));
+        } else {
+            queue.add(pending);
+            if (closed && !writer.isAlive() && queue.remove(pending)) {
+                pending.future.completeExceptionally(new SQLException("Write queue is closed"));
+            }
+        }
+        return pending.future;
+    }
+
+    /** Runs one command in its own transaction on the calling thread, bypassing the queue. */
+    public static <T> T runDirect(ConnectionSource source, Command<T> command) throws SQLException {
+        try (Connection conn = source.open()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = command.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void drain() {
+        List<Pending<?>> group = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                Pending<?> first = queue.take();
+                if (first == STOP) break;
+                group.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            if (!group.isEmpty()) commit(group);
+            group.clear();
+        }
+        // Anything still queued when we were told to stop is failed, not silently dropped.
+        Pending<?> left;
+        while ((left = queue.poll()) != null) {
+            if (left != STOP) left.future.completeExceptionally(new SQLException("Write queue is closed"));
+        }
+    }
+
+    private void commit(List<Pending<?>> group) {
+        Object[] results = new Object[group.size()];
+        Throwable[] failures = new Throwable[group.size()];
+        try (Connection conn = source.open()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < group.size(); i++) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        results[i] = group.get(i).command.execute(conn);
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback(savepoint);
+                        conn.releaseSavepoint(savepoint);
+                        failures[i] = e;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Nothing in the group was committed.
+            for (Pending<?> pending : group) pending.future.completeExceptionally(e);
+            return;
+        }
+
+        committedGroups.incrementAndGet();
+        for (int i = 0; i < group.size(); i++) {
+            if (failures[i] != null) {
+                group.get(i).future.completeExceptionally(failures[i]);
+            } else {
+                committedCommands.incrementAndGet();
+                group.get(i).complete(results[i]);
+            }
+        }
+    }
+
+    // --- Statistics ---
+
+    public long getCommittedCommands() { return committedCommands.get(); }
+    public long getCommittedGroups() { return committedGroups.get(); }
+    public int getQueuedCount() { return queue.size(); }
+
+    /** Commits everything already queued, then stops the writer thread. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Pending<T> {
+        final Command<T> command;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Pending(Command<T> command) {
+            this.command = command;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
@@ -1,16 +1,9 @@
 module com.example.restaurantmanagement {
     requires javafx.controls;
     requires javafx.fxml;
-    requires javafx.web;
 
-    requires org.controlsfx.controls;
-    requires com.dlsc.formsfx;
-    requires net.synedra.validatorfx;
-    requires org.kordamp.ikonli.javafx;
-    requires org.kordamp.bootstrapfx.core;
-    requires eu.hansolo.tilesfx;
-    requires com.almasb.fxgl.all;
     requires java.sql;
+    requires java.desktop; // ImageIO, for generating image renditions
     // requires org.xerial.sqlitejdbc; // Removed to avoid "module not found" error if not on module path
 
     opens com.example.restaurantmanagement to javafx.fxml;
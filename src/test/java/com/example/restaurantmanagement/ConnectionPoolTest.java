@@ -0,0 +1,69 @@
+package com.example.restaurantmanagement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void openPool() {
+        pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("pool.db"), true, 1, 0, 0, 5_000, 1_000);
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void proxyHasItsOwnIdentity() throws SQLException {
+        Connection first = pool.read();
+        int hash = first.hashCode();
+        assertEquals(first, first);
+        first.close();
+        // The same connection is handed out again, behind a new proxy.
+        try (Connection second = pool.read()) {
+            assertNotEquals(first, second);
+            assertEquals(hash, first.hashCode());
+            assertTrue(first.toString().contains("returned"));
+        }
+    }
+
+    @Test
+    void returnedProxyRefusesUnwrap() throws SQLException {
+        Connection conn = pool.read();
+        assertTrue(conn.isWrapperFor(Connection.class));
+        conn.close();
+        assertThrows(SQLException.class, () -> conn.unwrap(Connection.class));
+        assertThrows(SQLException.class, conn::createStatement);
+    }
+
+    @Test
+    void statementsGiveBackTheProxy() throws SQLException {
+        try (Connection conn = pool.write();
+             Statement stmt = conn.createStatement();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1")) {
+            assertSame(conn, stmt.getConnection());
+            assertSame(conn, pstmt.getConnection());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.restaurantmanagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KitchenQueueTest {
+
+    private static final String[] ITEMS = {"Burger", "Fries", "Pizza", "Salad", "Soup", "Pasta", "Cake"};
+    private static final long NOW = System.currentTimeMillis();
+
+    @Test
+    void claimsRushFirstThenByPromisedTime() {
+        KitchenQueue queue = new KitchenQueue(8, 1);
+        Random random = new Random(3);
+        int tickets = 20_000;
+        for (int i = 0; i < tickets; i++) {
+            KitchenTicket ticket = queue.enqueue(i, "tx-" + i, "guest", lines(random), NOW + random.nextInt(60_000), KitchenTicket.NORMAL);
+            if (random.nextInt(10) == 0) assertTrue(queue.rush(ticket));
+        }
+        assertEquals(tickets, queue.getWaiting().size());
+
+        KitchenTicket previous = null;
+        int claimed = 0;
+        KitchenTicket ticket;
+        while ((ticket = queue.claim("Station 1")) != null) {
+            claimed++;
+            if (previous != null) {
+                assertFalse(outOfOrder(previous, ticket), "ticket #" + ticket.getId() + " came out after #" + previous.getId());
+            }
+            previous = ticket;
+            assertTrue(queue.complete(ticket));
+        }
+        assertEquals(tickets, claimed);
+    }
+
+    @Test
+    void putBackTicketKeepsItsPlace() {
+        KitchenQueue queue = new KitchenQueue(8, 1);
+        KitchenTicket first = queue.enqueue(1, "tx-1", "guest", lines(new Random(1)), NOW, KitchenTicket.NORMAL);
+        KitchenTicket second = queue.enqueue(2, "tx-2", "guest", lines(new Random(1)), NOW + 1_000, KitchenTicket.NORMAL);
+
+        assertSame(first, queue.claim("Station 1"));
+        assertEquals("Station 1", first.getStation());
+        assertTrue(queue.release(first));
+        assertNull(first.getStation());
+        assertEquals(List.of(first, second), queue.getWaiting());
+        assertSame(first, queue.claim("Station 2"));
+        assertFalse(queue.rush(first), "a ticket being prepared cannot be rushed");
+    }
+
+    @Test
+    void cancelledTicketsAreNeverClaimed() {
+        KitchenQueue queue = new KitchenQueue(8, 1);
+        KitchenTicket waiting = queue.enqueue(1, "tx-1", "guest", lines(new Random(1)), NOW, KitchenTicket.NORMAL);
+        KitchenTicket preparing = queue.enqueue(2, "tx-2", "guest", lines(new Random(2)), NOW - 1_000, KitchenTicket.NORMAL);
+        assertSame(preparing, queue.claim("Station 1"));
+
+        assertEquals(1, queue.cancelOrder(1));
+        assertEquals(1, queue.cancelOrder(2));
+        assertFalse(queue.complete(preparing));
+        assertFalse(queue.release(preparing));
+        assertEquals(KitchenTicket.Status.CANCELLED, waiting.getStatus());
+        assertNull(queue.claim("Station 1"));
+        assertEquals(2, queue.getCancelled());
+    }
+
+    @Test
+    void applyTicketsOnlyLinesNotYetOnTheBoard() {
+        KitchenQueue queue = new KitchenQueue(8, 1);
+        OrderLine burger = new OrderLine(10, 1, "Burger", 2, 19.0);
+        OrderLine fries = new OrderLine(11, 2, "Fries", 1, 4.0);
+        OrderLine cake = new OrderLine(15, 3, "Cake", 1, 6.0);
+
+        queue.apply(new KitchenOrder(1, 7, "tx-7", "a@x", "Pending", NOW, List.of(burger, fries)));
+        queue.apply(new KitchenOrder(0, 7, "tx-7", "a@x", "Pending", NOW, List.of(burger, fries)));
+        assertEquals(1, queue.getEnqueued(), "seeing the same order again adds nothing");
+        assertEquals(List.of("2 x Burger", "1 x Fries"), queue.getWaiting().get(0).getItems());
+
+        queue.apply(new KitchenOrder(2, 7, "tx-7", "a@x", "Pending", NOW + TimeUnit.MINUTES.toMillis(5), List.of(burger, fries, cake)));
+        assertEquals(2, queue.getEnqueued());
+        assertEquals(List.of("1 x Cake"), queue.getWaiting().get(1).getItems());
+
+        queue.apply(new KitchenOrder(3, 7, "tx-7", "a@x", "Removed", NOW, List.of()));
+        assertTrue(queue.getWaiting().isEmpty());
+        assertEquals(2, queue.getCancelled());
+
+        queue.apply(new KitchenOrder(4, 8, "tx-8", "a@x", "Accepted", NOW, List.of(burger)));
+        assertEquals(2, queue.getEnqueued(), "only Pending orders get tickets");
+    }
+
+    /**
+     * Checkout threads enqueue while station threads claim, finish and put back tickets, a
+     * manager rushes and cancels at random and an expediter keeps rushing the front of the queue,
+     * racing the stations for the same tickets. Every ticket must end done or cancelled exactly
+     * once, no two stations may ever hold the same ticket, and a ticket being prepared is never rushed.
+     */
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void concurrentProducersAndStationsNeitherLoseNorShareTickets() throws InterruptedException {
+        int producers = 4;
+        int stations = 4;
+        int perProducer = 20_000;
+        KitchenQueue queue = new KitchenQueue(8, 1);
+        int total = producers * perProducer;
+        // Indexed by ticket id, which a fresh queue hands out from 1.
+        AtomicReferenceArray<KitchenTicket> tickets = new AtomicReferenceArray<>(total + 1);
+        AtomicIntegerArray holders = new AtomicIntegerArray(total + 1);
+        AtomicIntegerArray finished = new AtomicIntegerArray(total + 1);
+        Queue<String> problems = new ConcurrentLinkedQueue<>();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> checkouts = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            checkouts.add(new Thread(() -> {
+                Random random = new Random(producer);
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    long orderId = (long) producer * perProducer + i;
+                    int priority = random.nextInt(20) == 0 ? KitchenTicket.RUSH : KitchenTicket.NORMAL;
+                    KitchenTicket ticket = queue.enqueue(orderId, "tx-" + orderId, "guest" + producer, lines(random),
+                            System.currentTimeMillis(), priority);
+                    tickets.set((int) ticket.getId(), ticket);
+                }
+            }, "checkout-" + p));
+        }
+
+        for (int s = 0; s < stations; s++) {
+            String station = "Station " + (s + 1);
+            workers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                await(start);
+                while (true) {
+                    KitchenTicket ticket = queue.claim(station);
+                    if (ticket == null) {
+                        if (!producing.get()) return;
+                        Thread.yield();
+                        continue;
+                    }
+                    int id = (int) ticket.getId();
+                    int priority = ticket.getPriority();
+                    if (holders.incrementAndGet(id) != 1) problems.add("ticket #" + id + " held by two stations at once");
+                    if (!station.equals(ticket.getStation())) problems.add("ticket #" + id + " claimed for " + ticket.getStation());
+                    Thread.yield();
+                    if (ticket.getStatus() == KitchenTicket.Status.PREPARING && !station.equals(ticket.getStation())) {
+                        problems.add("ticket #" + id + " moved to " + ticket.getStation() + " while being prepared");
+                    }
+                    if (ticket.getPriority() != priority) problems.add("ticket #" + id + " rushed while being prepared");
+                    // Give the ticket up before the queue can hand it to someone else.
+                    holders.decrementAndGet(id);
+                    if (random.nextInt(10) == 0) {
+                        queue.release(ticket);
+                    } else if (queue.complete(ticket)) {
+                        finished.incrementAndGet(id);
+                    }
+                }
+            }, "station-" + s));
+        }
+
+        Thread manager = new Thread(() -> {
+            Random random = new Random(99);
+            await(start);
+            while (producing.get()) {
+                KitchenTicket ticket = tickets.get(1 + random.nextInt(total));
+                if (ticket == null) continue;
+                if (random.nextInt(4) == 0) {
+                    if (queue.cancel(ticket)) finished.incrementAndGet((int) ticket.getId());
+                } else {
+                    queue.rush(ticket);
+                }
+            }
+        }, "manager");
+
+        Thread expediter = new Thread(() -> {
+            await(start);
+            while (producing.get()) {
+                List<KitchenTicket> next = queue.getWaiting();
+                for (int i = 0; i < Math.min(4, next.size()); i++) queue.rush(next.get(i));
+            }
+        }, "expediter");
+
+        checkouts.forEach(Thread::start);
+        workers.forEach(Thread::start);
+        manager.start();
+        expediter.start();
+        start.countDown();
+        for (Thread checkout : checkouts) checkout.join();
+        producing.set(false);
+        manager.join();
+        expediter.join();
+        for (Thread worker : workers) worker.join();
+
+        // A ticket put back after the last station looked is still waiting; finish it here.
+        KitchenTicket left;
+        while ((left = queue.claim("Station 1")) != null) {
+            if (queue.complete(left)) finished.incrementAndGet((int) left.getId());
+        }
+
+        assertTrue(problems.isEmpty(), () -> String.join("\n", problems));
+        assertEquals(total, queue.getEnqueued());
+        assertEquals(total, queue.getCompleted() + queue.getCancelled());
+        for (int id = 1; id <= total; id++) {
+            KitchenTicket ticket = tickets.get(id);
+            assertNotNull(ticket, "ticket #" + id + " was never handed out");
+            assertEquals(1, finished.get(id), "ticket #" + id + " finished the wrong number of times, now " + ticket.getStatus());
+        }
+        assertTrue(queue.getWaiting().isEmpty());
+        assertTrue(queue.getPreparing().isEmpty());
+    }
+
+    private static boolean outOfOrder(KitchenTicket previous, KitchenTicket next) {
+        if (previous.getPriority() != next.getPriority()) return previous.getPriority() < next.getPriority();
+        if (previous.getPromisedAt() != next.getPromisedAt()) return previous.getPromisedAt() > next.getPromisedAt();
+        return previous.getId() > next.getId();
+    }
+
+    private static List<OrderLine> lines(Random random) {
+        List<OrderLine> lines = new ArrayList<>();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            lines.add(new OrderLine(0, ITEMS[random.nextInt(ITEMS.length)], 1 + random.nextInt(3), 9.5));
+        }
+        return lines;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}